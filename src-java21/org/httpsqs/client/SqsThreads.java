@@ -0,0 +1,64 @@
+package org.httpsqs.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ִ߳. Java 21İ汾,ڶ汾JARMETA-INF/versions/21,virtualΪtrueʱ߳.
+ * ĴֻReentrantLockCondition,дsocketʱж,߳ʱᶤס߳
+ */
+final class SqsThreads {
+
+  private SqsThreads() {
+  }
+
+  /**
+   * @return ǰлǷ֧߳
+   */
+  static boolean isVirtualSupported() {
+    return true;
+  }
+
+  /**
+   * @return ǰ߳Ƿ߳
+   */
+  static boolean isVirtual() {
+    return Thread.currentThread().isVirtual();
+  }
+
+  /**
+   * һδػ߳,߳ػ߳
+   */
+  static Thread newThread(Runnable r, String name, boolean virtual) {
+    if (virtual) {
+      return Thread.ofVirtual().name(name).unstarted(r);
+    }
+    Thread t = new Thread(r, name);
+    t.setDaemon(true);
+    return t;
+  }
+
+  /**
+   * @return ߳Ϊprefixŵ̹߳
+   */
+  static ThreadFactory factory(String prefix, boolean virtual) {
+    if (virtual) {
+      return Thread.ofVirtual().name(prefix, 1).factory();
+    }
+    final AtomicInteger seq = new AtomicInteger();
+    return r -> newThread(r, prefix + seq.incrementAndGet(), false);
+  }
+
+  /**
+   * ִ̳߳. ʹ߳ʱÿһ߳,;threads̵߳Ĺ̶̳߳
+   */
+  static ExecutorService newExecutor(String prefix, int threads, boolean virtual) {
+    if (virtual) {
+      return Executors.newThreadPerTaskExecutor(factory(prefix, true));
+    }
+    return Executors.newFixedThreadPool(threads, factory(prefix, false));
+  }
+
+}
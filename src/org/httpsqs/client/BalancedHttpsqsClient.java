@@ -0,0 +1,325 @@
+package org.httpsqs.client;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ڵ֮为ؾĿͻ. ÿ󷢸ýڵ;ٵһ(ͬʱѡӳٵ͵),ڵȻֵ;
+ * ʧܵĽڵ۶ժ,̶̨߳statusJson,̽ɹָ. ʧʱһڵ.
+ * ڵӦͬһеĸ. ֵĺHttpsqsClientͬͬ,ûпýڵʱ"HTTPSQS_ERROR"ͷĽ
+ */
+public class BalancedHttpsqsClient {
+  private final SqsNode[] nodes;
+  private final int failureThreshold;
+  private final long openNanos;
+  private final int maxAttempts;
+  private final String healthQueue;
+  private final ScheduledExecutorService checker; //,ʱΪnull
+  private final AtomicInteger cursor = new AtomicInteger(); //ѡڵ,;ͬʱ
+
+  /**
+   * һ,ԼжĽ
+   */
+  private abstract static class Call<V> {
+    abstract V call(HttpsqsClient client);
+
+    /**
+     * @return ǷǿͻһĴ,۶
+     */
+    abstract boolean failed(V result);
+
+    /**
+     * @return Ƿǽʱʧ,϶ûз,Իڵ. ӱܾ,ӳʱ,û·ɵȶתConnectException
+     */
+    abstract boolean retryable(V result);
+
+    abstract V unavailable(String message);
+  }
+
+  private abstract static class MsgCall extends Call<SqsMsg> {
+    boolean failed(SqsMsg result) {
+      return result.cause != null;
+    }
+
+    boolean retryable(SqsMsg result) {
+      return result.cause instanceof ConnectException;
+    }
+
+    SqsMsg unavailable(String message) {
+      return new SqsMsg(-1, message, SqsStatus.ERROR, null);
+    }
+  }
+
+  private abstract static class ListCall extends Call<List<SqsMsg>> {
+    private final int n;
+
+    ListCall(int n) {
+      this.n = n;
+    }
+
+    boolean failed(List<SqsMsg> result) {
+      return !result.isEmpty() && result.get(0).cause != null;
+    }
+
+    boolean retryable(List<SqsMsg> result) {
+      return !result.isEmpty() && result.get(0).cause instanceof ConnectException;
+    }
+
+    List<SqsMsg> unavailable(String message) {
+      return Collections.nCopies(n, new SqsMsg(-1, message, SqsStatus.ERROR, null));
+    }
+  }
+
+  /**
+   * ʹĬϵĽ۶
+   */
+  public BalancedHttpsqsClient(Collection<HttpsqsClient> clients) {
+    this(clients, new SqsBalancerConfig());
+  }
+
+  /**
+   * @param clients
+   *          ڵHttpsqsClient
+   * @param config
+   *          ۶
+   */
+  public BalancedHttpsqsClient(Collection<HttpsqsClient> clients, SqsBalancerConfig config) {
+    this.nodes = new SqsNode[clients.size()];
+    int i = 0;
+    for (HttpsqsClient client : clients) {
+      nodes[i++] = new SqsNode(client);
+    }
+    this.failureThreshold = Math.max(1, config.getFailureThreshold());
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getOpenMillis()));
+    this.maxAttempts = Math.max(1, config.getMaxAttempts());
+    this.healthQueue = config.getHealthQueue();
+
+    if (config.getCheckIntervalMillis() > 0 && nodes.length > 0) {
+      this.checker = Executors.newScheduledThreadPool(nodes.length, SqsThreads.factory(
+          "BalancedHttpsqsClient-health-", false));
+      for (final SqsNode node : nodes) { //ÿڵ㵥,ڵ㲻ڵ
+        checker.scheduleWithFixedDelay(new Runnable() {
+          public void run() {
+            check(node);
+          }
+        }, config.getCheckIntervalMillis(), config.getCheckIntervalMillis(), TimeUnit.MILLISECONDS);
+      }
+    } else {
+      this.checker = null;
+    }
+  }
+
+  private void check(SqsNode node) {
+    long start = System.nanoTime();
+    String result = node.getClient().statusJson(healthQueue);
+    node.probe(System.nanoTime() - start, result.startsWith(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":"),
+        failureThreshold, openNanos);
+  }
+
+  /**
+   * нڵһν
+   */
+  public void checkNow() {
+    for (SqsNode node : nodes) {
+      check(node);
+    }
+  }
+
+  /**
+   * ڿõĽڵѡ;ٵ,ͬʱѡӳٵ͵
+   *
+   * @param excluded
+   *          ѾʧܵĽڵ
+   * @return ûпýڵʱnull
+   */
+  private SqsNode select(List<SqsNode> excluded) {
+    SqsNode best = null;
+    int start = (cursor.getAndIncrement() & 0x7FFFFFFF) % nodes.length;
+    for (int i = 0; i < nodes.length; i++) {
+      SqsNode node = nodes[(start + i) % nodes.length];
+      if (!node.isAvailable() || excluded.contains(node)) {
+        continue;
+      }
+      if (best == null || node.getOutstanding() < best.getOutstanding()
+          || (node.getOutstanding() == best.getOutstanding() && node.getLatencyNanos() < best.getLatencyNanos())) {
+        best = node;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * ûнʱ,۶ϳopenMillisĽڵ㿿ָ̽
+   *
+   * @return ȡ̽Ľڵ,ûʱnull
+   */
+  private SqsNode selectTrial(List<SqsNode> excluded) {
+    if (checker != null) {
+      return null;
+    }
+    for (SqsNode node : nodes) {
+      if (!excluded.contains(node) && node.tryTrial(openNanos)) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  private <V> V execute(Call<V> call) {
+    List<SqsNode> excluded = new ArrayList<SqsNode>(0);
+    V result = null;
+    for (int attempt = 0; attempt < maxAttempts && nodes.length > 0; attempt++) {
+      SqsNode node = selectTrial(excluded);
+      boolean trial = node != null;
+      if (node == null) {
+        node = select(excluded);
+      }
+      if (node == null) {
+        break;
+      }
+
+      node.begin();
+      long start = System.nanoTime();
+      boolean failed = true;
+      try {
+        result = call.call(node.getClient());
+        failed = call.failed(result);
+      } finally {
+        node.end(System.nanoTime() - start, failed, failureThreshold, trial);
+      }
+      if (!call.retryable(result)) {
+        return result;
+      }
+      excluded.add(node);
+    }
+    return result != null ? result : call.unavailable(HttpsqsClient.HTTPSQS_ERROR_PREFIX
+        + ":No available Sqs4J node");
+  }
+
+  /**
+   * ֹͣ,رнڵHttpsqsClient
+   */
+  public void close() {
+    if (checker != null) {
+      checker.shutdownNow();
+    }
+    for (SqsNode node : nodes) {
+      node.getClient().close();
+    }
+  }
+
+  /**
+   * @return нڵ״̬
+   */
+  public List<SqsNode> getNodes() {
+    return Collections.unmodifiableList(Arrays.asList(nodes));
+  }
+
+  /**
+   * @see HttpsqsClient#put(String, String, String)
+   */
+  public String put(final String queue_name, final String data, final String auth) {
+    return this.execute(new MsgCall() { //ֲַʧ,ñcauseĽ
+      SqsMsg call(HttpsqsClient client) {
+        return client.putText(queue_name, data, auth);
+      }
+    }).msg;
+  }
+
+  /**
+   * @see HttpsqsClient#putEx(String, String, String)
+   */
+  public SqsMsg putEx(final String queue_name, final String data, final String auth) {
+    return this.execute(new MsgCall() {
+      SqsMsg call(HttpsqsClient client) {
+        return client.putEx(queue_name, data, auth);
+      }
+    });
+  }
+
+  /**
+   * @see HttpsqsClient#get(String, String)
+   */
+  public String get(final String queue_name, final String auth) {
+    return this.execute(new MsgCall() {
+      SqsMsg call(HttpsqsClient client) {
+        return client.getText(queue_name, auth);
+      }
+    }).msg;
+  }
+
+  /**
+   * @see HttpsqsClient#getEx(String, String)
+   */
+  public SqsMsg getEx(final String queue_name, final String auth) {
+    return this.execute(new MsgCall() {
+      SqsMsg call(HttpsqsClient client) {
+        return client.getEx(queue_name, auth);
+      }
+    });
+  }
+
+  /**
+   * @see HttpsqsClient#view(String, long, String)
+   */
+  public String view(final String queue_name, final long pos, final String auth) {
+    return this.execute(new MsgCall() {
+      SqsMsg call(HttpsqsClient client) {
+        return client.viewText(queue_name, pos, auth);
+      }
+    }).msg;
+  }
+
+  /**
+   * @see HttpsqsClient#status(String)
+   */
+  public String status(final String queue_name) {
+    return this.execute(new MsgCall() {
+      SqsMsg call(HttpsqsClient client) {
+        return client.statusText(queue_name);
+      }
+    }).msg;
+  }
+
+  /**
+   * @see HttpsqsClient#statusJson(String)
+   */
+  public String statusJson(final String queue_name) {
+    return this.execute(new MsgCall() {
+      SqsMsg call(HttpsqsClient client) {
+        return client.statusJsonText(queue_name);
+      }
+    }).msg;
+  }
+
+  /**
+   * @see HttpsqsClient#getMany(String, int, String)
+   */
+  public List<SqsMsg> getMany(final String queue_name, final int n, final String auth) {
+    return this.execute(new ListCall(n) {
+      List<SqsMsg> call(HttpsqsClient client) {
+        return client.getMany(queue_name, n, auth);
+      }
+    });
+  }
+
+  /**
+   * @see HttpsqsClient#putAll(String, List, String)
+   */
+  public List<SqsMsg> putAll(final String queue_name, final List<String> datas, final String auth) {
+    return this.execute(new ListCall(datas.size()) {
+      List<SqsMsg> call(HttpsqsClient client) {
+        return client.putAll(queue_name, datas, auth);
+      }
+    });
+  }
+
+}
@@ -0,0 +1,16 @@
+package org.httpsqs.client;
+
+import java.util.List;
+
+/**
+ * HttpsqsBatchConsumerճһϢĴص
+ */
+public interface BatchHandler {
+  /**
+   * һϢ,һдݿ. ϢѾӷ,׳쳣ʱֻʧܵ,
+   *
+   * @param batch
+   *          ˳еϢ,һ
+   */
+  void onBatch(List<SqsMsg> batch) throws Exception;
+}
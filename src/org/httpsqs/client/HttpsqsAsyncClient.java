@@ -0,0 +1,217 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * HttpsqsClient첽汾,зSqsFuture,ĺHttpsqsClientͬͬ
+ */
+public class HttpsqsAsyncClient {
+  private final HttpsqsClient client;
+  private final ExecutorService executor;
+  private final boolean ownExecutor; //executorǷɱ󴴽,رʱҪһر
+
+  /**
+   * 첽HTTP Sqs Client
+   *
+   * @param client
+   *          ͬHttpsqsClient
+   * @param ioThreads
+   *          I/O߳. ײHttpsqsClientʹNIOʱI/Oִ߳,ٴ߳;ʹ߳ʱÿһ߳,
+   */
+  public HttpsqsAsyncClient(HttpsqsClient client, int ioThreads) {
+    this.client = client;
+    if (client.isNonBlocking()) { //Ĵ㲻ҪI/O߳
+      this.executor = null;
+      this.ownExecutor = false;
+      return;
+    }
+    this.executor = SqsThreads.newExecutor("HttpsqsAsyncClient-io-", ioThreads, client.isVirtualThreads());
+    this.ownExecutor = true;
+  }
+
+  /**
+   * 첽HTTP Sqs Client
+   *
+   * @param client
+   *          ͬHttpsqsClient
+   * @param executor
+   *          ִ̳߳,رձʱر. ײHttpsqsClientʹNIOʱõ,Ϊnull
+   * @throws IllegalArgumentException
+   *           executorΪnullҵײHttpsqsClientʹĴ
+   */
+  public HttpsqsAsyncClient(HttpsqsClient client, ExecutorService executor) {
+    if (executor == null && !client.isNonBlocking()) {
+      throw new IllegalArgumentException("executor is required for a blocking HttpsqsClient");
+    }
+    this.client = client;
+    this.executor = executor;
+    this.ownExecutor = false;
+  }
+
+  /**
+   * @return ײͬHttpsqsClient
+   */
+  public HttpsqsClient getClient() {
+    return client;
+  }
+
+  private static <V> SqsFuture<V> completed(V result) {
+    SqsFuture<V> future = new SqsFuture<V>();
+    future.setResult(result);
+    return future;
+  }
+
+  /**
+   * 첽ĸָе
+   *
+   * @see HttpsqsClient#maxqueue(String, long, String, String)
+   */
+  public SqsFuture<String> maxqueueAsync(String queue_name, long num, String user, String pass) {
+    try {
+      return client.doGetProcessAsync(client.maxqueueUrl(queue_name, num), user, pass, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽޸Ķʱˢڴ滺ݵ̵ļʱ
+   *
+   * @see HttpsqsClient#synctime(String, int, String, String)
+   */
+  public SqsFuture<String> synctimeAsync(String queue_name, int num, String user, String pass) {
+    try {
+      return client.doGetProcessAsync(client.synctimeUrl(queue_name, num), user, pass, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽ֶˢڴ滺ݵ
+   *
+   * @see HttpsqsClient#flush(String, String, String)
+   */
+  public SqsFuture<String> flushAsync(String queue_name, String user, String pass) {
+    try {
+      return client.doGetProcessAsync(client.flushUrl(queue_name), user, pass, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽ָ
+   *
+   * @see HttpsqsClient#reset(String, String, String)
+   */
+  public SqsFuture<String> resetAsync(String queue_name, String user, String pass) {
+    try {
+      return client.doGetProcessAsync(client.resetUrl(queue_name), user, pass, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽Ĳ鿴״̬
+   *
+   * @see HttpsqsClient#status(String)
+   */
+  public SqsFuture<String> statusAsync(String queue_name) {
+    try {
+      return client.doGetProcessAsync(client.statusUrl(queue_name), null, null, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽JSONʽ鿴״̬
+   *
+   * @see HttpsqsClient#statusJson(String)
+   */
+  public SqsFuture<String> statusJsonAsync(String queue_name) {
+    try {
+      return client.doGetProcessAsync(client.statusJsonUrl(queue_name), null, null, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽Ĳ鿴ָλõ
+   *
+   * @see HttpsqsClient#view(String, long, String)
+   */
+  public SqsFuture<String> viewAsync(String queue_name, long pos, String auth) {
+    try {
+      return client.doGetMessageAsync(client.viewUrl(queue_name, pos, auth), executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽ĳ
+   *
+   * @see HttpsqsClient#get(String, String)
+   */
+  public SqsFuture<String> getAsync(String queue_name, String auth) {
+    try {
+      return client.doGetMessageAsync(client.getUrl(queue_name, auth), executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽ĳ
+   *
+   * @see HttpsqsClient#getEx(String, String)
+   */
+  public SqsFuture<SqsMsg> getExAsync(String queue_name, String auth) {
+    try {
+      return client.doGetProcessExAsync(client.getUrl(queue_name, auth), null, null, executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(SqsMsg.error(ex));
+    }
+  }
+
+  /**
+   * 첽
+   *
+   * @see HttpsqsClient#put(String, String, String)
+   */
+  public SqsFuture<String> putAsync(String queue_name, String data, String auth) {
+    try {
+      return client.doPostProcessAsync(client.putUrl(queue_name, auth), client.putBody(data), executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * 첽
+   *
+   * @see HttpsqsClient#putEx(String, String, String)
+   */
+  public SqsFuture<SqsMsg> putExAsync(String queue_name, String data, String auth) {
+    try {
+      return client.doPostProcessExAsync(client.putUrl(queue_name, auth), client.putBody(data), executor);
+    } catch (UnsupportedEncodingException ex) {
+      return completed(SqsMsg.error(ex));
+    }
+  }
+
+  /**
+   * ر첽Client. ɱ󴴽I/O̳߳ػᱻر,ύִ;ײHttpsqsClientᱻر
+   */
+  public void close() {
+    if (ownExecutor) {
+      executor.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,198 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * . ̨߳ˮߵget,չmaxBatchSize,ϢݴﵽmaxBatchBytesֽ,ߵһϢȴmaxWaitMillisʱ,
+ * һBatchHandler. һ֮ż,ѾеϢһ
+ */
+public class HttpsqsBatchConsumer {
+  private final QueueHandle queue;
+  private final BatchHandler handler;
+  private final int maxBatchSize;
+  private final long maxBatchBytes;
+  private final long maxWaitNanos;
+  private final SqsBackoff backoff;
+
+  private final ArrayDeque<SqsRawMsg> pending = new ArrayDeque<SqsRawMsg>(); //ѾлûзŽϢ,ֻɺ̷̨߳
+  private final CountDownLatch stopping = new CountDownLatch(1); //shutdown()Ϊ0
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong processed = new AtomicLong();
+  private final AtomicLong failedBatches = new AtomicLong();
+  private volatile SqsMsg lastError;
+
+  HttpsqsBatchConsumer(HttpsqsClient client, String queue_name, String auth, BatchHandler handler,
+      SqsBatchConfig config) throws UnsupportedEncodingException {
+    this.queue = client.queue(queue_name, auth);
+    this.handler = handler;
+    this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+    this.maxBatchBytes = Math.max(1, config.getMaxBatchBytes());
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getMaxWaitMillis()));
+    this.backoff = config.getBackoff() == null ? new SqsBackoff() : config.getBackoff();
+
+    SqsThreads.newThread(new Runnable() {
+      public void run() {
+        try {
+          runLoop();
+        } finally {
+          terminated.countDown();
+        }
+      }
+    }, "HttpsqsBatchConsumer-" + queue_name, client.isVirtualThreads()).start();
+  }
+
+  private void runLoop() {
+    List<SqsMsg> batch = new ArrayList<SqsMsg>();
+    long bytes = 0;
+    long deadline = 0; //һhandlerʱ
+    for (;;) {
+      boolean stop = stopping.getCount() == 0;
+      while (!pending.isEmpty() && batch.size() < maxBatchSize) {
+        SqsRawMsg msg = pending.peekFirst();
+        if (!batch.isEmpty() && bytes + msg.length() > maxBatchBytes) {
+          break;
+        }
+        pending.pollFirst();
+        if (batch.isEmpty()) {
+          deadline = System.nanoTime() + maxWaitNanos;
+        }
+        batch.add(msg.toSqsMsg());
+        bytes += msg.length();
+      }
+
+      if (!batch.isEmpty()) {
+        boolean full = batch.size() >= maxBatchSize || bytes >= maxBatchBytes || !pending.isEmpty();
+        if (full || stop || System.nanoTime() - deadline >= 0) {
+          deliver(batch);
+          batch = new ArrayList<SqsMsg>();
+          bytes = 0;
+          continue;
+        }
+      } else if (stop) { //ѾеϢ
+        return;
+      }
+      if (stop) {
+        continue;
+      }
+
+      boolean got = false;
+      for (SqsRawMsg msg : queue.getManyRaw(maxBatchSize - batch.size())) {
+        if (msg.pos > 0) {
+          got = true;
+          pending.addLast(msg);
+        } else if (msg.getStatus() != SqsStatus.GET_END) {
+          lastError = msg.toSqsMsg();
+        }
+      }
+      if (got) {
+        backoff.onMessage();
+        continue;
+      }
+
+      long nanos = TimeUnit.MILLISECONDS.toNanos(backoff.onEmpty());
+      if (!batch.isEmpty()) { //п,ȵһĽֹʱ
+        nanos = Math.min(nanos, deadline - System.nanoTime());
+      }
+      long start = System.nanoTime();
+      try {
+        stopping.await(nanos, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        //ֻ̨߳shutdown(),ж
+      } finally {
+        backoff.recordIdle(System.nanoTime() - start);
+      }
+    }
+  }
+
+  private void deliver(List<SqsMsg> batch) {
+    batches.incrementAndGet();
+    try {
+      handler.onBatch(batch);
+      processed.addAndGet(batch.size());
+    } catch (Throwable e) {
+      failedBatches.incrementAndGet();
+    }
+  }
+
+  /**
+   * ֹͣ,ȴ. ѾеϢΪһhandler
+   */
+  public void shutdown() {
+    stopping.countDown();
+  }
+
+  /**
+   * ȴ̴̨߳ѾеϢ˳
+   *
+   * @return ʱfalse
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+
+  /**
+   * Źر: ֹͣ,ȴѾеϢȫ
+   */
+  public void close() {
+    shutdown();
+    boolean interrupted = false;
+    for (;;) {
+      try {
+        terminated.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return BatchHandler
+   */
+  public long getBatches() {
+    return batches.get();
+  }
+
+  /**
+   * @return BatchHandlerصϢ
+   */
+  public long getProcessed() {
+    return processed.get();
+  }
+
+  /**
+   * @return BatchHandler׳쳣
+   */
+  public long getFailedBatches() {
+    return failedBatches.get();
+  }
+
+  /**
+   * @return һγĴ,ûʱΪnull
+   */
+  public SqsMsg getLastError() {
+    return lastError;
+  }
+
+  /**
+   * @return ն˱ܲ,ѯͿʱͳ
+   */
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+}
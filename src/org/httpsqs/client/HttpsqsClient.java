@@ -1,17 +1,31 @@
 package org.httpsqs.client;
 
 import java.io.*;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class HttpsqsClient {
   private String server; //IPַ
   private int port; //˿ں
   private String charset; //HTTPַ
+  private Charset responseCharset; //Ӧõַ,charset֧ʱΪnull
   private int connectTimeout = 0; //ӳʱ
   private int readTimeout = 0; //ʱ
+  private String host; //HTTPHostͷ
+  private SqsTransport transport; //: ĳ־ӳػ߷NIO
+  private int pipelineDepth; //getMany,putAllһͬʱ;
+  private boolean virtualThreads; //ִ߳Ƿʹ߳
 
   public static final String HTTPSQS_ERROR_PREFIX = "HTTPSQS_ERROR"; //Sqs4Jǰ׺
 
@@ -30,11 +44,102 @@ public class HttpsqsClient {
    *          ʱ()
    */
   public HttpsqsClient(String server, int port, String charset, int connectTimeout, int readTimeout) {
+    this(server, port, charset, connectTimeout, readTimeout, new SqsPoolConfig());
+  }
+
+  /**
+   * HTTP Sqs Client
+   * 
+   * @param server
+   *          IPַ
+   * @param port
+   *          ˿ں
+   * @param charset
+   *          HTTPַ
+   * @param connectTimeout
+   *          ӳʱ()
+   * @param readTimeout
+   *          ʱ()
+   * @param poolConfig
+   *          ־ӳ
+   */
+  public HttpsqsClient(String server, int port, String charset, int connectTimeout, int readTimeout,
+      SqsPoolConfig poolConfig) {
     this.server = server;
     this.port = port;
     this.charset = charset;
+    try {
+      this.responseCharset = Charset.forName(charset);
+    } catch (IllegalArgumentException e) { //ֵַ֧ʱ"HTTPSQS_ERROR"ͷĽ
+      this.responseCharset = null;
+    }
     this.connectTimeout = connectTimeout;
     this.readTimeout = readTimeout;
+    this.host = server + ":" + port;
+    this.pipelineDepth = Math.max(1, poolConfig.getPipelineDepth());
+    this.virtualThreads = poolConfig.isVirtualThreads() && SqsThreads.isVirtualSupported();
+    if (poolConfig.isNio()) {
+      this.transport = new SqsNioTransport(server, port, connectTimeout, readTimeout, poolConfig);
+    } else {
+      this.transport = new SqsConnectionPool(server, port, connectTimeout, readTimeout, poolConfig);
+    }
+  }
+
+  /**
+   * رHTTP Sqs Client,ͷӳ
+   */
+  public void close() {
+    transport.close();
+  }
+
+  /**
+   * @return ǷǷ
+   */
+  boolean isNonBlocking() {
+    return transport.isNonBlocking();
+  }
+
+  /**
+   * @return ĳ־ӳĿ,NIO㷵-1
+   */
+  public int getNumIdle() {
+    return transport.getNumIdle();
+  }
+
+  /**
+   * @return һͬʱ;
+   */
+  int getPipelineDepth() {
+    return pipelineDepth;
+  }
+
+  /**
+   * @return Ƿ̲߳л֧
+   */
+  boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @return ":˿",Ƭʱڵıʶ
+   */
+  String getHost() {
+    return host;
+  }
+
+  /**
+   * HTTPGET,ҪBASIC֤,userԼpassΪnullֵ
+   * 
+   * @param urlstr
+   *          URL
+   * @param user
+   *          û
+   * @param pass
+   *          
+   * @return ķϢ
+   */
+  private String doGetProcess(String urlstr, String user, String pass) throws UnsupportedEncodingException {
+    return this.process(this.requestHead("GET", urlstr, user, pass, -1), null, urlstr, textConverter);
   }
 
   /**
@@ -48,121 +153,476 @@ public class HttpsqsClient {
    *          
    * @return ķϢ
    */
-  private String doGetProcess(String urlstr, String user, String pass) {
-    URL url = null;
+  private SqsMsg doGetProcessEx(String urlstr, String user, String pass) throws UnsupportedEncodingException {
+    return this.process(this.requestHead("GET", urlstr, user, pass, -1), null, urlstr, msgConverter);
+  }
+
+  /**
+   * кͲ鿴ݵGET,Ӧԭ,д
+   * 
+   * @param urlstr
+   *          URL
+   * @return ķϢ
+   */
+  private String doGetMessage(String urlstr) throws UnsupportedEncodingException {
+    return this.process(this.requestHead("GET", urlstr, null, null, -1), null, urlstr, messageConverter);
+  }
+
+  /**
+   * 첽кͲ鿴ݵGET
+   * 
+   * @param executor
+   *          ʱ,ִ̳߳
+   * @see #doGetMessage(String)
+   */
+  SqsFuture<String> doGetMessageAsync(String urlstr, Executor executor) throws UnsupportedEncodingException {
+    return this.processAsync(this.requestHead("GET", urlstr, null, null, -1), null, urlstr, messageConverter, executor);
+  }
+
+  /**
+   * 첽HTTPGET
+   * 
+   * @param executor
+   *          ʱ,ִ̳߳
+   * @see #doGetProcess(String, String, String)
+   */
+  SqsFuture<String> doGetProcessAsync(String urlstr, String user, String pass, Executor executor)
+      throws UnsupportedEncodingException {
+    return this.processAsync(this.requestHead("GET", urlstr, user, pass, -1), null, urlstr, textConverter, executor);
+  }
+
+  /**
+   * 첽HTTPGET
+   * 
+   * @param executor
+   *          ʱ,ִ̳߳
+   * @see #doGetProcessEx(String, String, String)
+   */
+  SqsFuture<SqsMsg> doGetProcessExAsync(String urlstr, String user, String pass, Executor executor)
+      throws UnsupportedEncodingException {
+    return this.processAsync(this.requestHead("GET", urlstr, user, pass, -1), null, urlstr, msgConverter, executor);
+  }
+
+  /**
+   * еPOST
+   * 
+   * @param urlstr
+   *          URL
+   * @param body
+   *          
+   * @return ķϢĵһ
+   */
+  private String doPostProcess(String urlstr, byte[] body) throws UnsupportedEncodingException {
+    return this.process(this.requestHead("POST", urlstr, null, null, body.length), body, urlstr, putTextConverter);
+  }
+
+  /**
+   * еPOST
+   * 
+   * @param urlstr
+   *          URL
+   * @param body
+   *          
+   * @return SqsMsg.pos=λõ, SqsMsg.msg=ķϢĵһ
+   */
+  private SqsMsg doPostProcessEx(String urlstr, byte[] body) throws UnsupportedEncodingException {
+    return this.process(this.requestHead("POST", urlstr, null, null, body.length), body, urlstr, putMsgConverter);
+  }
+
+  /**
+   * 첽еPOST
+   * 
+   * @see #doPostProcess(String, byte[])
+   */
+  SqsFuture<String> doPostProcessAsync(String urlstr, byte[] body, Executor executor)
+      throws UnsupportedEncodingException {
+    return this.processAsync(this.requestHead("POST", urlstr, null, null, body.length), body, urlstr, putTextConverter,
+        executor);
+  }
+
+  /**
+   * 첽еPOST
+   * 
+   * @see #doPostProcessEx(String, byte[])
+   */
+  SqsFuture<SqsMsg> doPostProcessExAsync(String urlstr, byte[] body, Executor executor)
+      throws UnsupportedEncodingException {
+    return this.processAsync(this.requestHead("POST", urlstr, null, null, body.length), body, urlstr, putMsgConverter,
+        executor);
+  }
+
+  /**
+   * 󲢰Ӧתɽ,κI/Oת"HTTPSQS_ERROR"ͷĽ
+   */
+  private <V> V process(byte[] head, byte[] body, String urlstr, ResultConverter<V> converter) {
+    return this.process(head, head.length, body, urlstr, converter);
+  }
+
+  /**
+   * 󲢰Ӧתɽ,ͷֻȡheadǰheadLengthֽ
+   */
+  <V> V process(byte[] head, int headLength, byte[] body, String urlstr, ResultConverter<V> converter) {
     try {
-      url = new URL(urlstr);
-    } catch (MalformedURLException e) {
-      return HTTPSQS_ERROR_PREFIX + ":" + e.getMessage();
+      return converter.convert(transport.execute(head, headLength, body), urlstr);
+    } catch (IOException e) {
+      return converter.error(e);
     }
+  }
 
-    BufferedReader reader = null;
+  /**
+   * 󲢰Ӧתɽ
+   */
+  private <V> V processStream(byte[] head, SqsStreamBody body, String urlstr, ResultConverter<V> converter) {
     try {
-      URLConnection conn = url.openConnection();
-      conn.setConnectTimeout(connectTimeout);
-      conn.setReadTimeout(readTimeout);
-      conn.setUseCaches(false);
-      conn.setDoOutput(false);
-      conn.setDoInput(true);
-      conn.setRequestProperty("Content-Type", "text/plain;charset=" + charset);
-      if (user != null && pass != null) {
-        conn.setRequestProperty("Authorization", "Basic "
-            + new String(Base64.encodeBytes((user + ":" + pass).getBytes(charset)))); //ҪBASIC֤
-      }
+      return converter.convert(transport.execute(head, body), urlstr);
+    } catch (IOException e) {
+      return converter.error(e);
+    }
+  }
+
+  /**
+   * һһ,˳Ӧתɽ
+   */
+  <V> List<V> processPipelined(List<byte[]> heads, List<byte[]> bodies, String urlstr,
+      ResultConverter<V> converter) {
+    return this.processPipelined(heads, bodies, Collections.nCopies(heads.size(), urlstr), converter);
+  }
 
-      conn.connect();
+  /**
+   * һһURLͬ,˳Ӧתɽ
+   */
+  <V> List<V> processPipelined(List<byte[]> heads, List<byte[]> bodies, List<String> urlstrs,
+      ResultConverter<V> converter) {
+    List<SqsFuture<SqsResponse>> futures = transport.executePipelined(heads, bodies, pipelineDepth);
+    List<V> results = new ArrayList<V>(futures.size());
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        results.add(converter.convert(SqsNioTransport.await(futures.get(i)), urlstrs.get(i)));
+      } catch (IOException e) {
+        results.add(converter.error(e));
+      }
+    }
+    return results;
+  }
 
-      reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), charset));
-      String line;
-      StringBuilder result = new StringBuilder();
+  /**
+   * 첽. ĴֱI/O߳SqsFuture,Ĵexecutorִ
+   */
+  private <V> SqsFuture<V> processAsync(final byte[] head, final byte[] body, final String urlstr,
+      final ResultConverter<V> converter, Executor executor) {
+    final SqsFuture<V> result = new SqsFuture<V>();
 
-      int i = 0;
-      while ((line = reader.readLine()) != null) {
-        i++;
-        if (i != 1) {
-          result.append("\n");
+    if (transport.isNonBlocking()) {
+      transport.executeAsync(head, body).addListener(new SqsFutureListener<SqsResponse>() {
+        public void operationComplete(SqsFuture<SqsResponse> future) {
+          if (future.isSuccess()) {
+            try {
+              result.setResult(converter.convert(future.getNow(), urlstr));
+            } catch (IOException e) {
+              result.setResult(converter.error(e));
+            }
+          } else {
+            result.setResult(converter.error(future.getCause()));
+          }
         }
-        result.append(line);
-      }
-      return result.toString();
-    } catch (IOException e) {
-      return HTTPSQS_ERROR_PREFIX + ":" + e.getMessage();
-    } finally {
-      if (reader != null) {
-        try {
-          reader.close();
-        } catch (IOException ex) {
+      });
+      return result;
+    }
+
+    try {
+      executor.execute(new Runnable() {
+        public void run() {
+          if (!result.isDone()) { //Ѿȡ
+            result.setResult(process(head, body, urlstr, converter));
+          }
         }
-      }
+      });
+    } catch (RejectedExecutionException e) {
+      result.setFailure(e);
     }
+    return result;
   }
 
   /**
-   * HTTPGET,ҪBASIC֤,userԼpassΪnullֵ
+   * HTTP/1.1Լͷ,ҪBASIC֤,userԼpassΪnullֵ
    * 
+   * @param method
+   *          GETPOST
    * @param urlstr
    *          URL
    * @param user
    *          û
    * @param pass
    *          
-   * @return ķϢ
+   * @param contentLength
+   *          ݵĳ,ûʱΪ-1
    */
-  private SqsMsg doGetProcessEx(String urlstr, String user, String pass) {
-    URL url = null;
-    try {
-      url = new URL(urlstr);
-    } catch (MalformedURLException e) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + e.getMessage());
+  byte[] requestHead(String method, String urlstr, String user, String pass, long contentLength)
+      throws UnsupportedEncodingException {
+    StringBuilder head = new StringBuilder(256);
+    head.append(method).append(' ').append(urlstr).append(" HTTP/1.1\r\n");
+    head.append(this.headerLines(user, pass));
+    if (contentLength >= 0) {
+      head.append("Content-Length: ").append(contentLength).append("\r\n");
     }
+    head.append("\r\n");
 
-    BufferedReader reader = null;
-    try {
-      URLConnection conn = url.openConnection();
-      conn.setConnectTimeout(connectTimeout);
-      conn.setReadTimeout(readTimeout);
-      conn.setUseCaches(false);
-      conn.setDoOutput(false);
-      conn.setDoInput(true);
-      conn.setRequestProperty("Content-Type", "text/plain;charset=" + charset);
-      if (user != null && pass != null) {
-        conn.setRequestProperty("Authorization", "Basic "
-            + new String(Base64.encodeBytes((user + ":" + pass).getBytes(charset)))); //ҪBASIC֤
+    return head.toString().getBytes("ISO-8859-1");
+  }
+
+  /**
+   * Content-Lengthͷ,ÿCRLFβ
+   */
+  String headerLines(String user, String pass) throws UnsupportedEncodingException {
+    StringBuilder head = new StringBuilder(128);
+    head.append("Host: ").append(host).append("\r\n");
+    head.append("Connection: keep-alive\r\n");
+    head.append("Content-Type: text/plain;charset=").append(charset).append("\r\n");
+    if (user != null && pass != null) {
+      head.append("Authorization: Basic ")
+          .append(new String(Base64.encodeBytes((user + ":" + pass).getBytes(charset)))).append("\r\n"); //ҪBASIC֤
+    }
+    return head.toString();
+  }
+
+  private void checkStatus(SqsResponse resp, String urlstr) throws IOException {
+    if (resp.status >= 400) {
+      throw new IOException("Server returned HTTP response code: " + resp.status + " for URL: http://" + host + urlstr);
+    }
+  }
+
+  /**
+   * ѷӦתɸķֵ
+   */
+  abstract class ResultConverter<V> {
+    abstract V convert(SqsResponse resp, String urlstr) throws IOException;
+
+    abstract V error(String message);
+
+    /**
+     * ͻһĴ,Ĭת"HTTPSQS_ERROR"ͷĽ
+     */
+    V error(Throwable cause) {
+      return error(HTTPSQS_ERROR_PREFIX + ":" + cause.getMessage());
+    }
+  }
+
+  /**
+   * Ӧ,֮"\n"
+   */
+  final ResultConverter<String> textConverter = new ResultConverter<String>() {
+    String convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      return readText(resp);
+    }
+
+    String error(String message) {
+      return message;
+    }
+  };
+
+  /**
+   * Ϣ,Content-Lengthֽԭ,е"\r\n"
+   */
+  final ResultConverter<String> messageConverter = new ResultConverter<String>() {
+    String convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      return decode(resp.body, 0, resp.length);
+    }
+
+    String error(String message) {
+      return message;
+    }
+  };
+
+  final ResultConverter<SqsMsg> msgConverter = new ResultConverter<SqsMsg>() {
+    SqsMsg convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      return new SqsMsg(resp.pos, decode(resp.body, 0, resp.length), getStatus(resp), null);
+    }
+
+    SqsMsg error(String message) {
+      return new SqsMsg(-1, message);
+    }
+
+    @Override
+    SqsMsg error(Throwable cause) {
+      return SqsMsg.error(cause);
+    }
+  };
+
+  /**
+   * Ӧݵĵһ
+   */
+  final ResultConverter<String> putTextConverter = new ResultConverter<String>() {
+    String convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      return readFirstLine(resp);
+    }
+
+    String error(String message) {
+      return message;
+    }
+  };
+
+  /**
+   * ַװSqsMsg.msg,ͻһĴcause
+   */
+  private ResultConverter<SqsMsg> withCause(final ResultConverter<String> converter) {
+    return new ResultConverter<SqsMsg>() {
+      SqsMsg convert(SqsResponse resp, String urlstr) throws IOException {
+        return new SqsMsg(-1, converter.convert(resp, urlstr));
+      }
+
+      SqsMsg error(String message) {
+        return new SqsMsg(-1, converter.error(message));
       }
 
-      conn.connect();
+      @Override
+      SqsMsg error(Throwable cause) {
+        return new SqsMsg(-1, converter.error(cause), SqsStatus.ERROR, cause);
+      }
+    };
+  }
 
-      reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), charset));
-      String line;
-      StringBuilder result = new StringBuilder();
+  private final ResultConverter<SqsMsg> textCauseConverter = withCause(textConverter);
+  private final ResultConverter<SqsMsg> messageCauseConverter = withCause(messageConverter);
+  private final ResultConverter<SqsMsg> putTextCauseConverter = withCause(putTextConverter);
 
-      int i = 0;
-      while ((line = reader.readLine()) != null) {
-        i++;
-        if (i != 1) {
-          result.append("\n");
-        }
-        result.append(line);
+  final ResultConverter<SqsMsg> putMsgConverter = new ResultConverter<SqsMsg>() {
+    SqsMsg convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      if (resp.length == 0) {
+        return new SqsMsg(resp.pos, null, SqsStatus.OK, null);
       }
+      int end = firstLineEnd(resp);
+      return new SqsMsg(resp.pos, decode(resp.body, 0, end), SqsStatus.parse(resp.body, 0, end), null);
+    }
+
+    SqsMsg error(String message) {
+      return new SqsMsg(-1, message);
+    }
+
+    @Override
+    SqsMsg error(Throwable cause) {
+      return SqsMsg.error(cause);
+    }
+  };
+
+  /**
+   * ԭʼӦ,ַת
+   */
+  final ResultConverter<byte[]> bytesConverter = new ResultConverter<byte[]>() {
+    byte[] convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      return resp.toByteArray();
+    }
 
-      long getPos = -1;
+    byte[] error(String message) {
       try {
-        getPos = Long.parseLong(conn.getHeaderField("Pos"));
-      } catch (Throwable e) {
-        getPos = -1;
+        return message.getBytes(charset);
+      } catch (UnsupportedEncodingException ex) {
+        return message.getBytes();
       }
+    }
+  };
 
-      return new SqsMsg(getPos, result.toString());
-    } catch (IOException e) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + e.getMessage());
-    } finally {
-      if (reader != null) {
-        try {
-          reader.close();
-        } catch (IOException ex) {
-        }
-      }
+  /**
+   * ԭʼϢֽ,Ƴٵһηʱ
+   */
+  final ResultConverter<SqsRawMsg> rawConverter = new ResultConverter<SqsRawMsg>() {
+    SqsRawMsg convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      return new SqsRawMsg(resp.pos, resp.toByteArray(), responseCharset, getStatus(resp), null);
+    }
+
+    SqsRawMsg error(String message) {
+      return new SqsRawMsg(-1, bytesConverter.error(message), responseCharset, SqsStatus.parse(message), null);
+    }
+
+    @Override
+    SqsRawMsg error(Throwable cause) {
+      String message = HTTPSQS_ERROR_PREFIX + ":" + cause.getMessage();
+      return new SqsRawMsg(-1, bytesConverter.error(message), responseCharset, SqsStatus.ERROR, cause);
+    }
+  };
+
+  /**
+   * ӦݸƵλõ,ÿ߳һʵ,ǰtarget
+   */
+  final class SlotConverter extends ResultConverter<SqsSlot> {
+    SqsSlot target;
+
+    SqsSlot convert(SqsResponse resp, String urlstr) throws IOException {
+      checkStatus(resp, urlstr);
+      target.set(resp.pos, resp.body, resp.length, getStatus(resp), responseCharset, null);
+      return target;
+    }
+
+    SqsSlot error(String message) {
+      byte[] b = bytesConverter.error(message);
+      target.set(-1, b, b.length, SqsStatus.parse(message), responseCharset, null);
+      return target;
+    }
+
+    @Override
+    SqsSlot error(Throwable cause) {
+      byte[] b = bytesConverter.error(HTTPSQS_ERROR_PREFIX + ":" + cause.getMessage());
+      target.set(-1, b, b.length, SqsStatus.ERROR, responseCharset, cause);
+      return target;
+    }
+  }
+
+  SlotConverter newSlotConverter() {
+    return new SlotConverter();
+  }
+
+  private String decode(byte[] b, int off, int len) throws UnsupportedEncodingException {
+    if (responseCharset != null) {
+      return new String(b, off, len, responseCharset);
+    }
+    return new String(b, off, len, charset);
+  }
+
+  /**
+   * BufferedReaderжȡ"\n"ӵĽͬ: "\r\n""\r""\n",ȥһ
+   */
+  private String readText(SqsResponse resp) throws UnsupportedEncodingException {
+    String text = decode(resp.body, 0, resp.length);
+    if (text.indexOf('\r') < 0 && !text.endsWith("\n")) { //,Ҫ
+      return text;
+    }
+
+    text = text.replace("\r\n", "\n").replace('\r', '\n');
+    return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+  }
+
+  /**
+   * Ӧݵĵһ,ûʱnull
+   */
+  private String readFirstLine(SqsResponse resp) throws UnsupportedEncodingException {
+    if (resp.length == 0) {
+      return null;
+    }
+    return decode(resp.body, 0, firstLineEnd(resp));
+  }
+
+  private static int firstLineEnd(SqsResponse resp) {
+    int end = 0;
+    while (end < resp.length && resp.body[end] != '\n' && resp.body[end] != '\r') {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * ӦĽ. PosͷӦһȡϢ,ʹϢǡú״ַ̬ͬ
+   */
+  private static SqsStatus getStatus(SqsResponse resp) {
+    if (resp.pos > 0) {
+      return SqsStatus.OK;
     }
+    return SqsStatus.parse(resp.body, 0, resp.length);
   }
 
   /**
@@ -181,12 +641,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String maxqueue(String queue_name, long num, String user, String pass) {
-    String result = null;
     try {
-      String urlstr = "http://" + this.server + ":" + this.port + "/?name=" + URLEncoder.encode(queue_name, charset)
-          + "&opt=maxqueue&num=" + num;
-      result = this.doGetProcess(urlstr, user, pass);
-      return result;
+      return this.doGetProcess(this.maxqueueUrl(queue_name, num), user, pass);
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -210,12 +666,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String synctime(String queue_name, int num, String user, String pass) {
-    String result = null;
     try {
-      String urlstr = "http://" + this.server + ":" + this.port + "/?name=" + URLEncoder.encode(queue_name, charset)
-          + "&opt=synctime&num=" + num;
-      result = this.doGetProcess(urlstr, user, pass);
-      return result;
+      return this.doGetProcess(this.synctimeUrl(queue_name, num), user, pass);
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -234,12 +686,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String flush(String queue_name, String user, String pass) {
-    String result = null;
     try {
-      String urlstr = "http://" + this.server + ":" + this.port + "/?name=" + URLEncoder.encode(queue_name, charset)
-          + "&opt=flush";
-      result = this.doGetProcess(urlstr, user, pass);
-      return result;
+      return this.doGetProcess(this.flushUrl(queue_name), user, pass);
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -259,13 +707,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String reset(String queue_name, String user, String pass) {
-    String result = null;
     try {
-      String urlstr = "http://" + this.server + ":" + this.port + "/?name=" + URLEncoder.encode(queue_name, charset)
-          + "&opt=reset";
-
-      result = this.doGetProcess(urlstr, user, pass);
-      return result;
+      return this.doGetProcess(this.resetUrl(queue_name), user, pass);
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -280,13 +723,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String status(String queue_name) {
-    String result = null;
     try {
-      String urlstr = "http://" + this.server + ":" + this.port + "/?name=" + URLEncoder.encode(queue_name, charset)
-          + "&opt=status";
-
-      result = this.doGetProcess(urlstr, null, null);
-      return result;
+      return this.doGetProcess(this.statusUrl(queue_name), null, null);
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -303,13 +741,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String statusJson(String queue_name) {
-    String result = null;
     try {
-      String urlstr = "http://" + this.server + ":" + this.port + "/?name=" + URLEncoder.encode(queue_name, charset)
-          + "&opt=status_json";
-
-      result = this.doGetProcess(urlstr, null, null);
-      return result;
+      return this.doGetProcess(this.statusJsonUrl(queue_name), null, null);
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -330,16 +763,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String view(String queue_name, long pos, String auth) {
-    String result = null;
     try {
-      StringBuilder urlstr = new StringBuilder("http://" + this.server + ":" + this.port + "/?charset=" + this.charset
-          + "&name=" + URLEncoder.encode(queue_name, charset) + "&opt=view&pos=" + pos);
-      if (auth != null) {
-        urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
-      }
-
-      result = this.doGetProcess(urlstr.toString(), null, null);
-      return result;
+      return this.doGetMessage(this.viewUrl(queue_name, pos, auth));
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -358,16 +783,8 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String get(String queue_name, String auth) {
-    String result = null;
     try {
-      StringBuilder urlstr = new StringBuilder("http://" + this.server + ":" + this.port + "/?charset=" + this.charset
-          + "&name=" + URLEncoder.encode(queue_name, charset) + "&opt=get");
-      if (auth != null) {
-        urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
-      }
-
-      result = this.doGetProcess(urlstr.toString(), null, null);
-      return result;
+      return this.doGetMessage(this.getUrl(queue_name, auth));
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
     }
@@ -386,18 +803,29 @@ public class HttpsqsClient {
    *         : SqsMsg.pos=-1; SqsMsg.msg="HTTPSQS_ERROR"ͷַ
    */
   public SqsMsg getEx(String queue_name, String auth) {
-    SqsMsg result = null;
     try {
-      StringBuilder urlstr = new StringBuilder("http://" + this.server + ":" + this.port + "/?charset=" + this.charset
-          + "&name=" + URLEncoder.encode(queue_name, charset) + "&opt=get");
-      if (auth != null) {
-        urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
-      }
+      return this.doGetProcessEx(this.getUrl(queue_name, auth), null, null);
+    } catch (UnsupportedEncodingException ex) {
+      return SqsMsg.error(ex);
+    }
+  }
 
-      result = this.doGetProcessEx(urlstr.toString(), null, null);
-      return result;
+  /**
+   * ,ϢݱΪԭʼֽ,һηSqsRawMsg.getMsg()ʱŽ. ֻ״̬תֽʱַת
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return SqsRawMsg getExķֵͬ,isGetEnd(),isAuthFailed(),isError()״̬
+   * @see #getEx(String, String)
+   */
+  public SqsRawMsg getRaw(String queue_name, String auth) {
+    try {
+      String urlstr = this.getUrl(queue_name, auth);
+      return this.process(this.requestHead("GET", urlstr, null, null, -1), null, urlstr, rawConverter);
     } catch (UnsupportedEncodingException ex) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+      return rawConverter.error(ex);
     }
   }
 
@@ -416,67 +844,80 @@ public class HttpsqsClient {
    *         : "HTTPSQS_ERROR"ͷַ
    */
   public String put(String queue_name, String data, String auth) {
-    StringBuilder urlstr;
-    URL url;
     try {
-      urlstr = new StringBuilder("http://" + this.server + ":" + this.port + "/?name="
-          + URLEncoder.encode(queue_name, charset) + "&opt=put");
-      if (auth != null) {
-        urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
-      }
-
-      url = new URL(urlstr.toString());
+      return this.doPostProcess(this.putUrl(queue_name, auth), this.putBody(data));
     } catch (UnsupportedEncodingException ex) {
       return HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
-    } catch (MalformedURLException e) {
-      return HTTPSQS_ERROR_PREFIX + ":" + e.getMessage();
     }
-    URLConnection conn;
+  }
 
-    OutputStreamWriter writer = null;
+  /**
+   * put(String, String, String)ͬ,SqsMsg.msg,ͻһĴSqsMsg.cause.
+   * BalancedHttpsqsClientݴжϷַķܷ񻻽ڵ,漸Ҳһ
+   */
+  SqsMsg putText(String queue_name, String data, String auth) {
     try {
-      conn = url.openConnection();
-      conn.setConnectTimeout(connectTimeout);
-      conn.setReadTimeout(readTimeout);
-      conn.setUseCaches(false);
-      conn.setDoOutput(true);
-      conn.setDoInput(true);
-      conn.setRequestProperty("Content-Type", "text/plain;charset=" + charset);
+      String urlstr = this.putUrl(queue_name, auth);
+      byte[] body = this.putBody(data);
+      return this.process(this.requestHead("POST", urlstr, null, null, body.length), body, urlstr,
+          putTextCauseConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
 
-      //conn.setRequestProperty("Authorization","Basic "+ new String(Base64.encodeBytes((user+":"+pass).getBytes(charset))));  //ҪBASIC֤ĿԼ
+  /**
+   * @see #get(String, String)
+   * @see #putText(String, String, String)
+   */
+  SqsMsg getText(String queue_name, String auth) {
+    try {
+      return this.getProcessText(this.getUrl(queue_name, auth), messageCauseConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
 
-      conn.connect();
+  /**
+   * @see #view(String, long, String)
+   * @see #putText(String, String, String)
+   */
+  SqsMsg viewText(String queue_name, long pos, String auth) {
+    try {
+      return this.getProcessText(this.viewUrl(queue_name, pos, auth), messageCauseConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
 
-      writer = new OutputStreamWriter(conn.getOutputStream(), charset);
-      writer.write(URLEncoder.encode(data, charset));
-      writer.flush();
-    } catch (IOException e) {
-      return HTTPSQS_ERROR_PREFIX + ":" + e.getMessage();
-    } finally {
-      if (writer != null) {
-        try {
-          writer.close();
-        } catch (IOException ex) {
-        }
-      }
+  /**
+   * @see #status(String)
+   * @see #putText(String, String, String)
+   */
+  SqsMsg statusText(String queue_name) {
+    try {
+      return this.getProcessText(this.statusUrl(queue_name), textCauseConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
     }
+  }
 
-    BufferedReader reader = null;
+  /**
+   * @see #statusJson(String)
+   * @see #putText(String, String, String)
+   */
+  SqsMsg statusJsonText(String queue_name) {
     try {
-      reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), charset));
-      return reader.readLine();
-    } catch (IOException e) {
-      return HTTPSQS_ERROR_PREFIX + ":" + e.getMessage();
-    } finally {
-      if (reader != null) {
-        try {
-          reader.close();
-        } catch (IOException ex) {
-        }
-      }
+      return this.getProcessText(this.statusJsonUrl(queue_name), textCauseConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
     }
   }
 
+  private SqsMsg getProcessText(String urlstr, ResultConverter<SqsMsg> converter) throws UnsupportedEncodingException {
+    return this.process(this.requestHead("GET", urlstr, null, null, -1), null, urlstr, converter);
+  }
+
   /**
    * 
    * 
@@ -492,71 +933,572 @@ public class HttpsqsClient {
    *         : SqsMsg.pos=-1; SqsMsg.msg="HTTPSQS_ERROR"ͷַ
    */
   public SqsMsg putEx(String queue_name, String data, String auth) {
-    StringBuilder urlstr;
-    URL url;
     try {
-      urlstr = new StringBuilder("http://" + this.server + ":" + this.port + "/?name="
-          + URLEncoder.encode(queue_name, charset) + "&opt=put");
-      if (auth != null) {
-        urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
-      }
+      return this.doPostProcessEx(this.putUrl(queue_name, auth), this.putBody(data));
+    } catch (UnsupportedEncodingException ex) {
+      return SqsMsg.error(ex);
+    }
+  }
+
+  /**
+   * ȡһеľ. Ԥȱö,֤Լͷ,ͬһзʱظƴӺͱURL
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return о,Ա̹߳
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public QueueHandle queue(String queue_name, String auth) throws UnsupportedEncodingException {
+    return new QueueHandle(this, queue_name, auth);
+  }
+
+  /**
+   * һ첽е. Ϣȷڴ滺,ɺ̨̳߳ˮ߷
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jput֤,Ҫ֤ʱ,Ϊnull
+   * @param config
+   *          ĴС,ȴʱͻС
+   * @return ,Ա̹߳,close()
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsProducer producer(String queue_name, String auth, SqsProducerConfig config)
+      throws UnsupportedEncodingException {
+    return new HttpsqsProducer(this, queue_name, auth, config);
+  }
+
+  /**
+   * һԤȡ. ̨̰߳ϢԤȳеػ,poll()ֱӴڴ淵
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param config
+   *          Ԥȡȵ
+   * @return ,Ա̹߳,close()
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsConsumer consumer(String queue_name, String auth, SqsConsumerConfig config)
+      throws UnsupportedEncodingException {
+    return new HttpsqsConsumer(this, queue_name, auth, config);
+  }
+
+  /**
+   * һеѯ. Ϊʱbackoff˱ܺ,ѭﷴget
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param backoff
+   *          ˱ܲ,ͬʱͳƿѯͿʱ
+   * @return ѯ,Ա̹߳
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public SqsPoller poller(String queue_name, String auth, SqsBackoff backoff) throws UnsupportedEncodingException {
+    return new SqsPoller(this.queue(queue_name, auth), backoff);
+  }
+
+  /**
+   * һ߳. ̲߳,ȡϢִ̳߳handler
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param handler
+   *          Ϣص
+   * @param config
+   *          ߳,;Ϣexecutor
+   * @return Ѿ,close()Źر
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsWorkerPool workerPool(String queue_name, String auth, MessageHandler handler, SqsWorkerConfig config)
+      throws UnsupportedEncodingException {
+    return new HttpsqsWorkerPool(this, queue_name, auth, handler, config);
+  }
+
+  /**
+   * һûλϢ. ̰߳ӦֱӸƵԤȷĲλ,̲߳ȡλ
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param handler
+   *          λص
+   * @param config
+   *          λ,߳͵ȴʽ
+   * @return Ѿ,close()Źر
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsRingConsumer ringConsumer(String queue_name, String auth, SlotHandler handler, SqsRingConfig config)
+      throws UnsupportedEncodingException {
+    return new HttpsqsRingConsumer(this, queue_name, auth, handler, config);
+  }
+
+  /**
+   * һ. ˮߵget,,ֽߵȴʱճһhandler
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param handler
+   *          ص
+   * @param config
+   *          
+   * @return Ѿ,close()Źر
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsBatchConsumer batchConsumer(String queue_name, String auth, BatchHandler handler,
+      SqsBatchConfig config) throws UnsupportedEncodingException {
+    return new HttpsqsBatchConsumer(this, queue_name, auth, handler, config);
+  }
+
+  /**
+   * һ. һ̰߳Ȩزѯ,ʱΪյĶһʱ
+   *
+   * @param weights
+   *          Ȩصӳ,жжлѹʱгеϢȨس
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param handler
+   *          Ϣص
+   * @param config
+   *          
+   * @return Ѿ,close()Źر
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsFanInConsumer fanInConsumer(Map<String, Integer> weights, String auth, QueueMessageHandler handler,
+      SqsFanInConfig config) throws UnsupportedEncodingException {
+    return new HttpsqsFanInConsumer(this, weights, auth, handler, config);
+  }
+
+  /**
+   * һеķ. request(n)֮ų,δΪ0ʱget
+   *
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @param backoff
+   *          ΪnullʱΪվonComplete();Ϊnullʱ˱ܺѯ
+   * @return ,close()
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsPublisher publisher(String queue_name, String auth, SqsBackoff backoff)
+      throws UnsupportedEncodingException {
+    return new HttpsqsPublisher(this, queue_name, auth, backoff);
+  }
+
+  /**
+   * һеĶ. ͬʱ;put󲻳maxInFlight,Դʩӱѹ
+   *
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jput֤,Ҫ֤ʱ,Ϊnull
+   * @param maxInFlight
+   *          ͬʱ;put
+   * @return ,ͨcompletion()ȴȫ
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public HttpsqsPutSubscriber putSubscriber(String queue_name, String auth, int maxInFlight)
+      throws UnsupportedEncodingException {
+    return new HttpsqsPutSubscriber(this, queue_name, auth, maxInFlight);
+  }
+
+  /**
+   * ȡնеα,ȡ"HTTPSQS_GET_END"ʱ. drain()trySplit()ֳαԶ̲߳г
+   *
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget֤,Ҫ֤ʱ,Ϊnull
+   * @return α,ֻһ߳ʹ
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public SqsCursor stream(String queue_name, String auth) throws UnsupportedEncodingException {
+    return new SqsCursor(this.queue(queue_name, auth), pipelineDepth);
+  }
+
+  /**
+   * ȡ÷߼,"queue_name#0".."queue_name#(partitions-1)"
+   *
+   * @param queue_name
+   *          ߼
+   * @param partitions
+   *          
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return ߼,Ա̹߳
+   * @throws UnsupportedEncodingException
+   *           HTTPַ֧
+   */
+  public SqsPartitionedQueue partitioned(String queue_name, int partitions, String auth)
+      throws UnsupportedEncodingException {
+    QueueHandle[] handles = new QueueHandle[Math.max(1, partitions)];
+    for (int i = 0; i < handles.length; i++) {
+      handles[i] = this.queue(SqsPartitionedQueue.partitionName(queue_name, i), auth);
+    }
+    return new SqsPartitionedQueue(queue_name, handles);
+  }
 
-      url = new URL(urlstr.toString());
+  /**
+   * . һ־nget(HTTP pipelining),˳ȡnӦ,ͬʱ;SqsPoolConfig.pipelineDepth
+   * 
+   * @param queue_name
+   *          
+   * @param n
+   *          еĴ
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return nһһӦnSqsMsg,ÿSqsMsgĺgetExķֵͬ. еϢnʱ,SqsMsg.msgΪ"HTTPSQS_GET_END"
+   * @see #getEx(String, String)
+   */
+  public List<SqsMsg> getMany(String queue_name, int n, String auth) {
+    if (n <= 0) {
+      return new ArrayList<SqsMsg>(0);
+    }
+    String urlstr;
+    byte[] head;
+    try {
+      urlstr = this.getUrl(queue_name, auth);
+      head = this.requestHead("GET", urlstr, null, null, -1);
     } catch (UnsupportedEncodingException ex) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
-    } catch (MalformedURLException e) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + e.getMessage());
+      return new ArrayList<SqsMsg>(Collections.nCopies(n, SqsMsg.error(ex)));
     }
-    URLConnection conn;
 
-    OutputStreamWriter writer = null;
+    return this.processPipelined(Collections.nCopies(n, head), null, urlstr, msgConverter);
+  }
+
+  /**
+   * . һ־put(HTTP pipelining),˳ȡӦ,ͬʱ;SqsPoolConfig.pipelineDepth
+   * 
+   * @param queue_name
+   *          
+   * @param datas
+   *          еϢ,˳
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return datasһһӦSqsMsg,ÿSqsMsgĺputExķֵͬ
+   * @see #putEx(String, String, String)
+   */
+  public List<SqsMsg> putAll(String queue_name, List<String> datas, String auth) {
+    if (datas.isEmpty()) {
+      return new ArrayList<SqsMsg>(0);
+    }
+    String urlstr;
+    List<byte[]> bodies = new ArrayList<byte[]>(datas.size());
     try {
-      conn = url.openConnection();
-      conn.setConnectTimeout(connectTimeout);
-      conn.setReadTimeout(readTimeout);
-      conn.setUseCaches(false);
-      conn.setDoOutput(true);
-      conn.setDoInput(true);
-      conn.setRequestProperty("Content-Type", "text/plain;charset=" + charset);
+      urlstr = this.putUrl(queue_name, auth);
+      for (String data : datas) {
+        bodies.add(this.putBody(data));
+      }
+    } catch (UnsupportedEncodingException ex) {
+      return new ArrayList<SqsMsg>(Collections.nCopies(datas.size(), SqsMsg.error(ex)));
+    }
 
-      //conn.setRequestProperty("Authorization","Basic "+ new String(Base64.encodeBytes((user+":"+pass).getBytes(charset))));  //ҪBASIC֤ĿԼ
+    return this.putEncoded(urlstr, bodies);
+  }
 
-      conn.connect();
+  /**
+   * ͬһϢе. Ϣֻһ,һ־put(HTTP pipelining)
+   * 
+   * @param queue_names
+   *          ,ظĶֻһ
+   * @param data
+   *          Ϣ
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return ӳ,queue_names˳,ÿSqsMsgĺputExķֵͬ
+   * @see #putEx(String, String, String)
+   */
+  public Map<String, SqsMsg> putToAll(Collection<String> queue_names, String data, String auth) {
+    List<String> names = new ArrayList<String>(new LinkedHashSet<String>(queue_names));
+    Map<String, SqsMsg> results = new LinkedHashMap<String, SqsMsg>();
+    if (names.isEmpty()) {
+      return results;
+    }
 
-      writer = new OutputStreamWriter(conn.getOutputStream(), charset);
-      writer.write(URLEncoder.encode(data, charset));
-      writer.flush();
-    } catch (IOException e) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + e.getMessage());
-    } finally {
-      if (writer != null) {
-        try {
-          writer.close();
-        } catch (IOException ex) {
-        }
+    List<SqsMsg> msgs;
+    try {
+      byte[] body = this.putBody(data);
+      List<String> urlstrs = new ArrayList<String>(names.size());
+      List<byte[]> heads = new ArrayList<byte[]>(names.size());
+      for (String queue_name : names) {
+        String urlstr = this.putUrl(queue_name, auth);
+        urlstrs.add(urlstr);
+        heads.add(this.requestHead("POST", urlstr, null, null, body.length));
       }
+      msgs = this.processPipelined(heads, Collections.nCopies(names.size(), body), urlstrs, putMsgConverter);
+    } catch (UnsupportedEncodingException ex) {
+      msgs = Collections.nCopies(names.size(), SqsMsg.error(ex));
+    }
+
+    for (int i = 0; i < names.size(); i++) {
+      results.put(names.get(i), msgs.get(i));
     }
+    return results;
+  }
 
-    long putPos = -1;
+  /**
+   * һһѾõ
+   *
+   * @param urlstr
+   *          putUrl()ɵURL
+   */
+  List<SqsMsg> putEncoded(String urlstr, List<byte[]> bodies) {
+    List<byte[]> heads = new ArrayList<byte[]>(bodies.size());
     try {
-      putPos = Long.parseLong(conn.getHeaderField("Pos"));
-    } catch (Throwable e) {
-      putPos = -1;
+      for (byte[] body : bodies) {
+        heads.add(this.requestHead("POST", urlstr, null, null, body.length));
+      }
+    } catch (UnsupportedEncodingException ex) {
+      return new ArrayList<SqsMsg>(Collections.nCopies(bodies.size(), SqsMsg.error(ex)));
     }
 
-    BufferedReader reader = null;
+    return this.processPipelined(heads, bodies, urlstr, putMsgConverter);
+  }
+
+  /**
+   * ,ԭʼϢֽ,ַת
+   * 
+   * @param queue_name
+   *          
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return ɹ: еϢ <br>
+   *         : "HTTPSQS_GET_END"-Ϊ <br>
+   *         ֤: "HTTPSQS_AUTH_FAILED" <br>
+   *         : "HTTPSQS_ERROR"ͷַ <br>
+   *         ϢHTTPַֽ
+   */
+  public byte[] getBytes(String queue_name, String auth) {
     try {
-      reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), charset));
-      return new SqsMsg(putPos, reader.readLine());
-    } catch (IOException e) {
-      return new SqsMsg(-1, HTTPSQS_ERROR_PREFIX + ":" + e.getMessage());
-    } finally {
-      if (reader != null) {
-        try {
-          reader.close();
-        } catch (IOException ex) {
-        }
+      String urlstr = this.getUrl(queue_name, auth);
+      return this.process(this.requestHead("GET", urlstr, null, null, -1), null, urlstr, bytesConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return bytesConverter.error(HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage());
+    }
+  }
+
+  /**
+   * ,Ϣԭʼֽ. ֻԷURLʱı京ֽٷֺű,StringURLEncoder
+   * 
+   * @param queue_name
+   *          
+   * @param data
+   *          еϢ
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return SqsMsg putExķֵͬ
+   * @see #putEx(String, String, String)
+   */
+  public SqsMsg putBytes(String queue_name, byte[] data, String auth) {
+    return this.doPutBytes(queue_name, percentEncode(data, 0, data.length), auth);
+  }
+
+  /**
+   * ,Ϣdatapositionlimitֽ֮,datapositionı
+   * 
+   * @see #putBytes(String, byte[], String)
+   */
+  public SqsMsg putBytes(String queue_name, ByteBuffer data, String auth) {
+    return this.doPutBytes(queue_name, percentEncode(data), auth);
+  }
+
+  /**
+   * ,Ϣݴжȡ. һ߶һٷֺűһ߷(HTTP chunked),Ϣڴ,ʺϺܴϢ
+   * 
+   * @param queue_name
+   *          
+   * @param in
+   *          Ϣ,󲻻ر
+   * @param length
+   *          Ϣֽ,С0ʾ
+   * @param auth
+   *          Sqs4jget,put,view֤,Ҫ֤ʱ,Ϊnull
+   * @return SqsMsg putExķֵͬ
+   * @see #putBytes(String, byte[], String)
+   */
+  public SqsMsg putStream(String queue_name, InputStream in, long length, String auth) {
+    return this.doPutStream(queue_name, SqsStreamBody.of(in, length), auth);
+  }
+
+  /**
+   * ,Ϣݴͨжȡ. putStream(String, InputStream, long, String)ͬ,FileChannelӵǰλÿʼȡ,
+   * ͨλǰlengthֽ
+   * 
+   * @throws IllegalArgumentException
+   *           ģʽͨ
+   * @see #putStream(String, InputStream, long, String)
+   */
+  public SqsMsg putStream(String queue_name, ReadableByteChannel in, long length, String auth) {
+    return this.doPutStream(queue_name, SqsStreamBody.of(in, length), auth);
+  }
+
+  private SqsMsg doPutStream(String queue_name, SqsStreamBody body, String auth) {
+    try {
+      String urlstr = this.putUrl(queue_name, auth);
+      byte[] head = ("POST " + urlstr + " HTTP/1.1\r\n" + this.headerLines(null, null)
+          + "Transfer-Encoding: chunked\r\n\r\n").getBytes("ISO-8859-1");
+      return this.processStream(head, body, urlstr, putMsgConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return SqsMsg.error(ex);
+    }
+  }
+
+  private SqsMsg doPutBytes(String queue_name, byte[] body, String auth) {
+    try {
+      return this.doPostProcessEx(this.putUrl(queue_name, auth), body);
+    } catch (UnsupportedEncodingException ex) {
+      return SqsMsg.error(ex);
+    }
+  }
+
+  /**
+   * Ҫٷֺűֽ: URLʱ⺬'%','+',Լַ,ոͷASCIIֽ
+   */
+  private static final boolean[] NEED_ENCODE = new boolean[256];
+  static {
+    for (int i = 0; i < 256; i++) {
+      NEED_ENCODE[i] = i <= ' ' || i >= 0x7F || i == '%' || i == '+';
+    }
+  }
+
+  private static final byte[] HEX = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F' };
+
+  /**
+   * ԭʼֽٵİٷֺű,Ҫʱֱӷԭ
+   */
+  static byte[] percentEncode(byte[] data, int off, int len) {
+    int extra = percentEncodeExtra(data, off, len);
+    if (extra == 0 && off == 0 && len == data.length) {
+      return data;
+    }
+
+    byte[] body = new byte[len + extra];
+    percentEncode(data, off, len, body, 0);
+    return body;
+  }
+
+  /**
+   * @return ٷֺűӵֽ
+   */
+  static int percentEncodeExtra(byte[] data, int off, int len) {
+    int extra = 0;
+    for (int i = off; i < off + len; i++) {
+      if (NEED_ENCODE[data[i] & 0xFF]) {
+        extra += 2;
+      }
+    }
+    return extra;
+  }
+
+  /**
+   * ѱдdest,destdestOffʼҪ3*lenֽڵĿռ
+   * 
+   * @return дֽ
+   */
+  static int percentEncode(byte[] data, int off, int len, byte[] dest, int destOff) {
+    int j = destOff;
+    for (int i = off; i < off + len; i++) {
+      int b = data[i] & 0xFF;
+      if (NEED_ENCODE[b]) {
+        dest[j++] = '%';
+        dest[j++] = HEX[b >>> 4];
+        dest[j++] = HEX[b & 0x0F];
+      } else {
+        dest[j++] = (byte) b;
       }
     }
+    return j - destOff;
+  }
+
+  static byte[] percentEncode(ByteBuffer data) {
+    if (data.hasArray()) {
+      return percentEncode(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    }
+    byte[] copy = new byte[data.remaining()];
+    data.duplicate().get(copy);
+    return percentEncode(copy, 0, copy.length);
+  }
+
+  //URL
+
+  String getCharset() {
+    return charset;
+  }
+
+  String maxqueueUrl(String queue_name, long num) throws UnsupportedEncodingException {
+    return "/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=maxqueue&num=" + num;
+  }
+
+  String synctimeUrl(String queue_name, int num) throws UnsupportedEncodingException {
+    return "/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=synctime&num=" + num;
+  }
+
+  String flushUrl(String queue_name) throws UnsupportedEncodingException {
+    return "/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=flush";
+  }
+
+  String resetUrl(String queue_name) throws UnsupportedEncodingException {
+    return "/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=reset";
+  }
+
+  String statusUrl(String queue_name) throws UnsupportedEncodingException {
+    return "/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=status";
+  }
+
+  String statusJsonUrl(String queue_name) throws UnsupportedEncodingException {
+    return "/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=status_json";
+  }
+
+  String viewUrl(String queue_name, long pos, String auth) throws UnsupportedEncodingException {
+    StringBuilder urlstr = new StringBuilder("/?charset=" + this.charset + "&name="
+        + URLEncoder.encode(queue_name, charset) + "&opt=view&pos=" + pos);
+    if (auth != null) {
+      urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
+    }
+    return urlstr.toString();
+  }
+
+  String getUrl(String queue_name, String auth) throws UnsupportedEncodingException {
+    StringBuilder urlstr = new StringBuilder("/?charset=" + this.charset + "&name="
+        + URLEncoder.encode(queue_name, charset) + "&opt=get");
+    if (auth != null) {
+      urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
+    }
+    return urlstr.toString();
+  }
+
+  String putUrl(String queue_name, String auth) throws UnsupportedEncodingException {
+    StringBuilder urlstr = new StringBuilder("/?name=" + URLEncoder.encode(queue_name, charset) + "&opt=put");
+    if (auth != null) {
+      urlstr.append("&auth=" + URLEncoder.encode(auth, charset));
+    }
+    return urlstr.toString();
+  }
+
+  byte[] putBody(String data) throws UnsupportedEncodingException {
+    return URLEncoder.encode(data, charset).getBytes(charset);
   }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ԥȡ. ̨߳ˮߵgetExϢԤȡػ,poll()ֱӴڴ淵,Ϣȴص.
+ * ԤȡȰٶȳһԤȡĺʱԶ,ΪʱSqsBackoff˱
+ */
+public class HttpsqsConsumer {
+  private static final double EWMA_WEIGHT = 0.3; //ƽֵеȨ
+
+  private final QueueHandle queue;
+  private final int minPrefetch;
+  private final int maxPrefetch;
+  private final SqsBackoff backoff;
+  private final Thread fetcher;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition(); //Ϣ,ѹر
+  private final Condition notFull = lock.newCondition(); //Ԥȡ,ѹر
+  private final ArrayDeque<SqsMsg> buffer = new ArrayDeque<SqsMsg>();
+  private int prefetch; //ǰԤȡ
+  private boolean starved; //ϴԤȡ֮poll()Ϊ
+  private boolean queueEmpty; //ϴԤȡʱѿ
+  private long consumed; //poll()ȡߵϢ
+  private long lastConsumed; //ϴεʱconsumed
+  private long lastAdjustNanos; //ϴεȵʱ
+  private double drainRate; //ٶȵƽֵ(/)
+  private double fetchNanos; //һԤȡʱƽֵ()
+  private SqsMsg lastError; //һԤȡĴ
+  private boolean closed;
+
+  HttpsqsConsumer(HttpsqsClient client, String queue_name, String auth, SqsConsumerConfig config)
+      throws UnsupportedEncodingException {
+    this.queue = client.queue(queue_name, auth);
+    this.maxPrefetch = Math.max(1, config.getMaxPrefetch());
+    this.minPrefetch = Math.min(Math.max(1, config.getMinPrefetch()), maxPrefetch);
+    this.backoff = config.newBackoff();
+    this.prefetch = minPrefetch;
+    this.lastAdjustNanos = System.nanoTime();
+
+    this.fetcher = SqsThreads.newThread(new Runnable() {
+      public void run() {
+        runFetcher();
+      }
+    }, "HttpsqsConsumer-" + queue_name, client.isVirtualThreads());
+    fetcher.start();
+  }
+
+  /**
+   * ӱػȡһϢ,ȴ
+   *
+   * @return Ϊʱnull
+   */
+  public SqsMsg poll() {
+    lock.lock();
+    try {
+      return take();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * ӱػȡһϢ,Ϊʱȴtimeout
+   *
+   * @return ʱѹرղһѿʱnull
+   */
+  public SqsMsg poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      for (;;) {
+        SqsMsg msg = take();
+        if (msg != null || closed || nanos <= 0) {
+          return msg;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * ʱѾlock
+   */
+  private SqsMsg take() {
+    SqsMsg msg = buffer.pollFirst();
+    if (msg == null) {
+      if (!queueEmpty) {
+        starved = true;
+      }
+      return null;
+    }
+    consumed++;
+    if (buffer.size() < prefetch) {
+      notFull.signal();
+    }
+    return msg;
+  }
+
+  /**
+   * ֹͣԤȡ. ѾȡϢȻpoll(),ЩϢѾӷ,ȡ߻ᶪʧ
+   */
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notEmpty.signalAll();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    if (fetcher != Thread.currentThread()) {
+      boolean interrupted = false;
+      for (;;) {
+        try {
+          fetcher.join();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void runFetcher() {
+    for (;;) {
+      int n;
+      lock.lock();
+      try {
+        while (!closed && buffer.size() >= prefetch) {
+          notFull.awaitUninterruptibly();
+        }
+        if (closed) {
+          return;
+        }
+        n = prefetch - buffer.size();
+        starved = false;
+      } finally {
+        lock.unlock();
+      }
+
+      long start = System.nanoTime();
+      List<SqsMsg> results = queue.getMany(n);
+      long elapsed = System.nanoTime() - start;
+
+      List<SqsMsg> msgs = new ArrayList<SqsMsg>(results.size());
+      boolean empty = false;
+      SqsMsg error = null;
+      for (SqsMsg result : results) {
+        if (result.pos > 0) {
+          msgs.add(result);
+        } else if (result.status == SqsStatus.GET_END) {
+          empty = true;
+        } else {
+          error = result;
+        }
+      }
+
+      lock.lock();
+      try {
+        buffer.addAll(msgs); //رպȡϢҲŽ,
+        if (!msgs.isEmpty()) {
+          notEmpty.signalAll();
+        }
+        queueEmpty = empty;
+        if (error != null) {
+          lastError = error;
+        }
+        adjust(elapsed);
+
+        if (!msgs.isEmpty()) {
+          backoff.onMessage();
+        } else if ((empty || error != null) && !closed) { //Ϊջ߳ʱ˱һȡ
+          long nanos = TimeUnit.MILLISECONDS.toNanos(backoff.onEmpty());
+          long idleStart = System.nanoTime();
+          while (nanos > 0 && !closed) {
+            try {
+              nanos = notFull.awaitNanos(nanos);
+            } catch (InterruptedException e) {
+              //ֻ̨߳close(),ж
+            }
+          }
+          backoff.recordIdle(System.nanoTime() - idleStart);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * LittleɵԤȡ: ԤȡһεĺʱڻᱻȡߵϢ,һ. ߵȹϢʱٷ.
+   * ʱѾlock
+   */
+  private void adjust(long elapsed) {
+    long now = System.nanoTime();
+    long interval = now - lastAdjustNanos;
+    if (interval > 0) {
+      double rate = (double) (consumed - lastConsumed) / interval;
+      drainRate = drainRate == 0 ? rate : drainRate + (rate - drainRate) * EWMA_WEIGHT;
+    }
+    fetchNanos = fetchNanos == 0 ? elapsed : fetchNanos + (elapsed - fetchNanos) * EWMA_WEIGHT;
+    lastConsumed = consumed;
+    lastAdjustNanos = now;
+
+    long depth = (long) Math.ceil(drainRate * fetchNanos * 2) + 1;
+    if (starved && !queueEmpty) {
+      depth = Math.max(depth, (long) prefetch * 2);
+    }
+    prefetch = (int) Math.max(minPrefetch, Math.min(maxPrefetch, depth));
+  }
+
+  /**
+   * @return ػеϢ
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return buffer.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return ǰԤȡ
+   */
+  public int getPrefetch() {
+    lock.lock();
+    try {
+      return prefetch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return һԤȡĴ,msg"HTTPSQS_ERROR"ͷ"HTTPSQS_AUTH_FAILED";ûʱΪnull
+   */
+  public SqsMsg getLastError() {
+    lock.lock();
+    try {
+      return lastError;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return ն˱ܲ,ѯͿʱͳ
+   */
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+  public HttpsqsClient getClient() {
+    return queue.getClient();
+  }
+
+}
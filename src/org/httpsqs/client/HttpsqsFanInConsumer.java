@@ -0,0 +1,221 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * һ߳Ѷ. Ȩѯ(Deficit Round Robin): ÿһÿеĶȨسquantum,
+ * ˮߵgetвȵϢ,жжлѹʱгеϢȨس.
+ * ȡ"HTTPSQS_GET_END"ĶնȲһʱ,Ϊʱʱ䰴,ĶвĿ.
+ * жжʱȴһȡ
+ */
+public class HttpsqsFanInConsumer {
+  private final Lane[] lanes;
+  private final QueueMessageHandler handler;
+  private final int batchSize; //һˮ߳еϢ
+
+  private final CountDownLatch stopping = new CountDownLatch(1); //shutdown()Ϊ0
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  private final AtomicLong processed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong polls = new AtomicLong();
+  private final AtomicLong emptyPolls = new AtomicLong();
+  private volatile SqsMsg lastError;
+
+  /**
+   * һеĵ״̬,ֻɺ̷̨߳
+   */
+  private static final class Lane {
+    final QueueHandle queue;
+    final long quantum; //ÿһӵĶ
+    final SqsBackoff skip; //Ϊʱʱ
+    long deficit; //һֻԳеϢ
+    long skipUntil; //ʱ(System.nanoTime())֮ǰ
+    boolean skipping;
+
+    Lane(QueueHandle queue, long quantum, SqsBackoff skip) {
+      this.queue = queue;
+      this.quantum = quantum;
+      this.skip = skip;
+    }
+  }
+
+  HttpsqsFanInConsumer(HttpsqsClient client, Map<String, Integer> weights, String auth,
+      QueueMessageHandler handler, SqsFanInConfig config) throws UnsupportedEncodingException {
+    this.handler = handler;
+    this.batchSize = client.getPipelineDepth();
+    this.lanes = new Lane[weights.size()];
+    int i = 0;
+    for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+      long quantum = (long) Math.max(1, entry.getValue()) * Math.max(1, config.getQuantum());
+      lanes[i++] = new Lane(client.queue(entry.getKey(), auth), quantum, new SqsBackoff(config.getMinSkipMillis(),
+          config.getMaxSkipMillis(), 2.0, 0.2));
+    }
+
+    SqsThreads.newThread(new Runnable() {
+      public void run() {
+        try {
+          runLoop();
+        } finally {
+          terminated.countDown();
+        }
+      }
+    }, "HttpsqsFanInConsumer", client.isVirtualThreads()).start();
+  }
+
+  private void runLoop() {
+    while (stopping.getCount() > 0) {
+      long wakeup = 0; //жжʱ,ȡʱ
+      boolean polled = false;
+      for (Lane lane : lanes) {
+        if (stopping.getCount() == 0) {
+          return;
+        }
+        if (lane.skipping) {
+          long now = System.nanoTime();
+          if (lane.skipUntil - now > 0) {
+            if (wakeup == 0 || lane.skipUntil - wakeup < 0) {
+              wakeup = lane.skipUntil;
+            }
+            continue;
+          }
+          lane.skipping = false;
+        }
+        polled = true;
+        serve(lane);
+      }
+
+      if (!polled) {
+        long nanos = lanes.length == 0 ? Long.MAX_VALUE : wakeup - System.nanoTime();
+        try {
+          stopping.await(nanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+          //ֻ̨߳shutdown(),ж
+        }
+      }
+    }
+  }
+
+  /**
+   * һֵĶ,ֱ߶Ϊ
+   */
+  private void serve(Lane lane) {
+    lane.deficit += lane.quantum;
+    while (lane.deficit > 0) {
+      int n = (int) Math.min(lane.deficit, batchSize);
+      List<SqsMsg> results = lane.queue.getMany(n);
+      polls.incrementAndGet();
+      int delivered = 0;
+      boolean empty = false;
+      for (SqsMsg msg : results) {
+        if (msg.pos > 0) {
+          delivered++;
+          deliver(lane, msg); //رչȡϢҲҪ
+        } else if (msg.status == SqsStatus.GET_END) {
+          empty = true;
+        } else {
+          empty = true; //ĶҲһ
+          lastError = msg;
+        }
+      }
+      lane.deficit -= delivered;
+      if (delivered > 0) {
+        lane.skip.onMessage();
+      }
+      if (empty) {
+        emptyPolls.incrementAndGet();
+        lane.deficit = 0; //նвܶ
+        lane.skipUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lane.skip.onEmpty());
+        lane.skipping = true;
+        return;
+      }
+      if (stopping.getCount() == 0) {
+        return;
+      }
+    }
+  }
+
+  private void deliver(Lane lane, SqsMsg msg) {
+    try {
+      handler.onMessage(lane.queue.getName(), msg);
+      processed.incrementAndGet();
+    } catch (Throwable e) {
+      failed.incrementAndGet();
+    }
+  }
+
+  /**
+   * ֹͣ,ȴ. ѾȡϢ
+   */
+  public void shutdown() {
+    stopping.countDown();
+  }
+
+  /**
+   * ȴ̴̨߳ѾеϢ˳
+   *
+   * @return ʱfalse
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+
+  /**
+   * Źر: ֹͣ,ȴѾеϢȫ
+   */
+  public void close() {
+    shutdown();
+    boolean interrupted = false;
+    for (;;) {
+      try {
+        terminated.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return QueueMessageHandlerصϢ
+   */
+  public long getProcessed() {
+    return processed.get();
+  }
+
+  /**
+   * @return QueueMessageHandler׳쳣Ϣ
+   */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  /**
+   * @return ˮ߳еĴ
+   */
+  public long getPolls() {
+    return polls.get();
+  }
+
+  /**
+   * @return ȡ"HTTPSQS_GET_END"߳Ĵ
+   */
+  public long getEmptyPolls() {
+    return emptyPolls.get();
+  }
+
+  /**
+   * @return һγĴ,ûʱΪnull
+   */
+  public SqsMsg getLastError() {
+    return lastError;
+  }
+
+}
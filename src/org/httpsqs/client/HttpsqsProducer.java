@@ -0,0 +1,328 @@
+package org.httpsqs.client;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 첽. send()Ϣڴ滺,̨߳ڴչbatchSize,һϢȴlingerMillis,
+ * ߻ʱ,һˮ߷һ. ֻһ߳ʱϢsend()˳
+ */
+public class HttpsqsProducer {
+  private final HttpsqsClient client;
+  private final String queue_name;
+  private final String urlstr;
+  private final int batchSize;
+  private final long lingerNanos;
+  private final long bufferMemory;
+  private final long maxBlockMillis;
+  private final Thread[] senders;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition(); //Ϣ뻺,Ҫ
+  private final Condition notFull = lock.newCondition(); //һ,ճ˿ռ
+  private final ArrayDeque<Record> records = new ArrayDeque<Record>(); //ȴ͵Ϣ
+  private final List<List<Record>> inFlight = new ArrayList<List<Record>>(); //ڷ͵
+  private long bufferedBytes; //ȴͺڷ͵Ϣֽ
+  private int blocked; //ȴռsend(),0ʱ
+  private int flushing; //ִеflush(),0ʱ
+  private boolean closed;
+
+  /**
+   * ϢݺͶӦĽ
+   */
+  private static final class Record {
+    final byte[] body;
+    final SqsFuture<SqsMsg> future;
+    final long time; //뻺ʱ(System.nanoTime())
+
+    Record(byte[] body, SqsFuture<SqsMsg> future, long time) {
+      this.body = body;
+      this.future = future;
+      this.time = time;
+    }
+  }
+
+  HttpsqsProducer(HttpsqsClient client, String queue_name, String auth, SqsProducerConfig config)
+      throws UnsupportedEncodingException {
+    this.client = client;
+    this.queue_name = queue_name;
+    this.urlstr = client.putUrl(queue_name, auth);
+    this.batchSize = Math.max(1, config.getBatchSize());
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getLingerMillis()));
+    this.bufferMemory = config.getBufferMemory();
+    this.maxBlockMillis = config.getMaxBlockMillis();
+
+    this.senders = new Thread[Math.max(1, config.getSenderThreads())];
+    for (int i = 0; i < senders.length; i++) {
+      senders[i] = SqsThreads.newThread(new Runnable() {
+        public void run() {
+          runSender();
+        }
+      }, "HttpsqsProducer-" + queue_name + "-" + (i + 1), client.isVirtualThreads());
+      senders[i].start();
+    }
+  }
+
+  /**
+   * Ϣ뻺. ʱmaxBlockMillis
+   *
+   * @param data
+   *          Ϣ
+   * @return еĽ,ɹʱSqsMsg.posϢλõ;ȴʱ,ѹر,ʧʱmsg"HTTPSQS_ERROR"ͷ
+   */
+  public SqsFuture<SqsMsg> send(String data) {
+    try {
+      return this.append(client.putBody(data));
+    } catch (UnsupportedEncodingException ex) {
+      return completed(SqsMsg.error(ex));
+    }
+  }
+
+  /**
+   * ԭʼֽڵϢ뻺,ַת. ڵʱѾ,÷data
+   *
+   * @see #send(String)
+   */
+  public SqsFuture<SqsMsg> send(byte[] data) {
+    byte[] body = HttpsqsClient.percentEncode(data, 0, data.length);
+    return this.append(body == data ? data.clone() : body);
+  }
+
+  private SqsFuture<SqsMsg> append(byte[] body) {
+    if (body.length > bufferMemory) {
+      return completed(SqsMsg.error(new IOException("Message size " + body.length + " exceeds bufferMemory "
+          + bufferMemory)));
+    }
+
+    SqsFuture<SqsMsg> future = new SqsFuture<SqsMsg>();
+    lock.lock();
+    try {
+      long nanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+      while (!closed && bufferedBytes + body.length > bufferMemory) {
+        if (maxBlockMillis >= 0 && nanos <= 0) {
+          future.setResult(SqsMsg.error(new IOException("Producer buffer full, waited " + maxBlockMillis + "ms")));
+          return future;
+        }
+        blocked++;
+        notEmpty.signal();
+        try {
+          if (maxBlockMillis < 0) {
+            notFull.await();
+          } else {
+            nanos = notFull.awaitNanos(nanos);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          future.setResult(SqsMsg.error(e));
+          return future;
+        } finally {
+          blocked--;
+        }
+      }
+      if (closed) {
+        future.setResult(SqsMsg.error(new IllegalStateException("Producer is closed")));
+        return future;
+      }
+
+      records.addLast(new Record(body, future, System.nanoTime()));
+      bufferedBytes += body.length;
+      if (records.size() == 1 || records.size() >= batchSize) {
+        notEmpty.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return future;
+  }
+
+  private static SqsFuture<SqsMsg> completed(SqsMsg msg) {
+    SqsFuture<SqsMsg> future = new SqsFuture<SqsMsg>();
+    future.setResult(msg);
+    return future;
+  }
+
+  /**
+   * ͻеϢ,ȴ֮ǰsend()Ϣȫ˽
+   */
+  public void flush() throws InterruptedException {
+    List<SqsFuture<SqsMsg>> futures = new ArrayList<SqsFuture<SqsMsg>>();
+    lock.lock();
+    try {
+      for (List<Record> batch : inFlight) {
+        for (Record record : batch) {
+          futures.add(record.future);
+        }
+      }
+      for (Record record : records) {
+        futures.add(record.future);
+      }
+      flushing++;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      for (SqsFuture<SqsMsg> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          //SqsMsg,쳣
+        }
+      }
+    } finally {
+      lock.lock();
+      try {
+        flushing--;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * ٽϢ,껺еϢֹ̨ͣ߳. رHttpsqsClient
+   */
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notEmpty.signalAll();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    boolean interrupted = false;
+    for (Thread sender : senders) {
+      if (sender == Thread.currentThread()) { //ڽĻصر
+        continue;
+      }
+      for (;;) {
+        try {
+          sender.join();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runSender() {
+    for (;;) {
+      List<Record> batch;
+      lock.lock();
+      try {
+        batch = nextBatch();
+      } finally {
+        lock.unlock();
+      }
+      if (batch == null) {
+        return;
+      }
+      send(batch);
+    }
+  }
+
+  /**
+   * ȴһԷ͵Ϣ,ʱѾlock
+   *
+   * @return رղһѿʱnull
+   */
+  private List<Record> nextBatch() {
+    for (;;) {
+      if (records.isEmpty()) {
+        if (closed) {
+          return null;
+        }
+        notEmpty.awaitUninterruptibly();
+        continue;
+      }
+
+      long wait = records.peekFirst().time + lingerNanos - System.nanoTime();
+      if (wait <= 0 || records.size() >= batchSize || blocked > 0 || flushing > 0 || closed) {
+        int n = Math.min(batchSize, records.size());
+        List<Record> batch = new ArrayList<Record>(n);
+        for (int i = 0; i < n; i++) {
+          batch.add(records.pollFirst());
+        }
+        inFlight.add(batch);
+        if (!records.isEmpty()) { //ʣµ߳̽ŷ
+          notEmpty.signal();
+        }
+        return batch;
+      }
+
+      try {
+        notEmpty.awaitNanos(wait);
+      } catch (InterruptedException e) {
+        //ֻ̨߳close(),ж
+      }
+    }
+  }
+
+  private void send(List<Record> batch) {
+    List<byte[]> bodies = new ArrayList<byte[]>(batch.size());
+    long bytes = 0;
+    for (Record record : batch) {
+      bodies.add(record.body);
+      bytes += record.body.length;
+    }
+
+    List<SqsMsg> results;
+    try {
+      results = client.putEncoded(urlstr, bodies);
+    } catch (RuntimeException e) {
+      results = Collections.nCopies(batch.size(), SqsMsg.error(e));
+    }
+
+    lock.lock();
+    try {
+      inFlight.remove(batch);
+      bufferedBytes -= bytes;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      batch.get(i).future.setResult(results.get(i));
+    }
+  }
+
+  /**
+   * @return ȴͺڷ͵Ϣֽ
+   */
+  public long getBufferedBytes() {
+    lock.lock();
+    try {
+      return bufferedBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public String getQueueName() {
+    return queue_name;
+  }
+
+  public HttpsqsClient getClient() {
+    return client;
+  }
+
+}
@@ -0,0 +1,189 @@
+package org.httpsqs.client;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * еķ. ֻڶrequest(n)֮ŷget,һˮ߳еδ,
+ * ߴʱϢӷ. Ϊʱ,ûSqsBackoffonComplete(),˱ܺѯ
+ */
+public class HttpsqsPublisher implements SqsPublisher<SqsMsg> {
+  private final QueueHandle queue;
+  private final SqsBackoff backoff; //ΪnullʱΪվͽ
+  private final int batchSize; //һˮ߳еϢ
+  private final ScheduledExecutorService scheduler; //ִгкͻص,Լ˱ܺ
+
+  HttpsqsPublisher(HttpsqsClient client, String queue_name, String auth, SqsBackoff backoff)
+      throws UnsupportedEncodingException {
+    this.queue = client.queue(queue_name, auth);
+    this.backoff = backoff;
+    this.batchSize = client.getPipelineDepth();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(SqsThreads.factory("HttpsqsPublisher-" + queue_name
+        + "-", client.isVirtualThreads()));
+  }
+
+  public void subscribe(SqsSubscriber<? super SqsMsg> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+    new Subscription(subscriber).signal();
+  }
+
+  /**
+   * ֹ̨ͣ߳,еĶĲлص. رHttpsqsClient
+   */
+  public void close() {
+    scheduler.shutdown();
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+  /**
+   * һ. лصdrain()ﴮִ,wip֤ͬһʱֻһ߳drain()
+   */
+  private final class Subscription implements SqsSubscription, Runnable {
+    private final SqsSubscriber<? super SqsMsg> subscriber;
+    private final AtomicLong demand = new AtomicLong(); //δ,Long.MAX_VALUEʾ
+    private final AtomicInteger wip = new AtomicInteger(); //0ʱ߳drain()
+    private volatile boolean cancelled;
+    private volatile long invalidRequest; //request(n)յķǷn,ûʱΪ0
+    private boolean started; //ѾonSubscribe(),ֻdrain()
+    private boolean done; //ѾonError()onComplete(),ֻdrain()
+
+    Subscription(SqsSubscriber<? super SqsMsg> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = n;
+      } else {
+        long r;
+        long u;
+        do {
+          r = demand.get();
+          u = r + n;
+          if (u < 0) { //
+            u = Long.MAX_VALUE;
+          }
+        } while (!demand.compareAndSet(r, u));
+      }
+      signal();
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    void signal() {
+      if (wip.getAndIncrement() == 0) {
+        try {
+          scheduler.execute(this);
+        } catch (RejectedExecutionException e) { //ѹر
+          cancelled = true;
+        }
+      }
+    }
+
+    public void run() {
+      int missed = 1;
+      for (;;) {
+        drain();
+        missed = wip.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void drain() {
+      if (!started) {
+        started = true;
+        try {
+          subscriber.onSubscribe(this);
+        } catch (Throwable e) {
+          cancelled = true;
+        }
+      }
+
+      while (!cancelled && !done) {
+        if (invalidRequest != 0) {
+          done = true;
+          subscriber.onError(new IllegalArgumentException("request must be positive: " + invalidRequest));
+          return;
+        }
+        long d = demand.get();
+        if (d == 0) {
+          return;
+        }
+
+        List<SqsMsg> results = queue.getMany((int) Math.min(d, batchSize));
+        int emitted = 0;
+        boolean empty = false;
+        SqsMsg error = null;
+        for (SqsMsg result : results) {
+          if (result.pos > 0) {
+            emitted++;
+            try {
+              subscriber.onNext(result); //ѾеϢ,ȡ֮ҲҪȥ,ᶪʧ
+            } catch (Throwable e) {
+              cancelled = true;
+            }
+          } else if (result.status == SqsStatus.GET_END) {
+            empty = true;
+          } else if (error == null) {
+            error = result;
+          }
+        }
+        if (d != Long.MAX_VALUE) {
+          demand.addAndGet(-emitted);
+        }
+
+        if (error != null) {
+          done = true;
+          if (!cancelled) {
+            subscriber.onError(error.cause != null ? error.cause : new IOException(error.msg));
+          }
+          return;
+        }
+        if (emitted > 0) {
+          if (backoff != null) {
+            backoff.onMessage();
+          }
+        } else if (empty) {
+          if (backoff == null) {
+            done = true;
+            subscriber.onComplete();
+          } else {
+            long millis = backoff.onEmpty();
+            backoff.recordIdle(TimeUnit.MILLISECONDS.toNanos(millis));
+            retryLater(millis);
+          }
+          return;
+        }
+      }
+    }
+
+    private void retryLater(long millis) {
+      try {
+        scheduler.schedule(new Runnable() {
+          public void run() {
+            signal();
+          }
+        }, millis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) { //ѹر
+        cancelled = true;
+      }
+    }
+  }
+
+}
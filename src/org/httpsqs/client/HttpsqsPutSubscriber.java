@@ -0,0 +1,147 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * յ첽еĶ. ͬʱ;put󲻳maxInFlight,ÿһrequest(1),
+ * εٶеٶȾ. ν;ȫɺ,completion()
+ */
+public class HttpsqsPutSubscriber implements SqsSubscriber<String> {
+  private final HttpsqsClient client;
+  private final String urlstr;
+  private final int maxInFlight;
+  private final ExecutorService executor; //ִput,NIOģʽΪnull
+
+  private final AtomicReference<SqsSubscription> subscription = new AtomicReference<SqsSubscription>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong succeeded = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final SqsFuture<Long> completion = new SqsFuture<Long>();
+  private volatile boolean upstreamDone;
+  private volatile Throwable upstreamError;
+  private volatile SqsMsg lastError;
+
+  private final SqsFutureListener<SqsMsg> listener = new SqsFutureListener<SqsMsg>() {
+    public void operationComplete(SqsFuture<SqsMsg> future) {
+      SqsMsg msg = future.isSuccess() ? future.getNow() : SqsMsg.error(future.getCause());
+      if (msg.status == SqsStatus.PUT_OK) {
+        succeeded.incrementAndGet();
+      } else {
+        failed.incrementAndGet();
+        lastError = msg;
+      }
+
+      if (inFlight.decrementAndGet() == 0 && upstreamDone) {
+        finish();
+      } else if (!upstreamDone) {
+        subscription.get().request(1);
+      }
+    }
+  };
+
+  HttpsqsPutSubscriber(HttpsqsClient client, String queue_name, String auth, int maxInFlight)
+      throws UnsupportedEncodingException {
+    this.client = client;
+    this.urlstr = client.putUrl(queue_name, auth);
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.executor = client.isNonBlocking() ? null : SqsThreads.newExecutor("HttpsqsPutSubscriber-" + queue_name
+        + "-", this.maxInFlight, client.isVirtualThreads());
+  }
+
+  public void onSubscribe(SqsSubscription s) {
+    if (!subscription.compareAndSet(null, s)) { //ֻһ
+      s.cancel();
+      return;
+    }
+    s.request(maxInFlight);
+  }
+
+  public void onNext(String data) {
+    if (data == null) {
+      throw new NullPointerException("data");
+    }
+    inFlight.incrementAndGet();
+    SqsFuture<SqsMsg> future;
+    try {
+      future = client.doPostProcessExAsync(urlstr, client.putBody(data), executor);
+    } catch (UnsupportedEncodingException ex) {
+      future = new SqsFuture<SqsMsg>();
+      future.setResult(SqsMsg.error(ex));
+    }
+    future.addListener(listener);
+  }
+
+  public void onError(Throwable cause) {
+    upstreamError = cause;
+    onComplete();
+  }
+
+  public void onComplete() {
+    upstreamDone = true;
+    if (inFlight.get() == 0) {
+      finish();
+    }
+  }
+
+  private void finish() {
+    if (upstreamError != null) {
+      completion.setFailure(upstreamError);
+    } else {
+      completion.setResult(succeeded.get());
+    }
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * ȡεĶ,Ѿ;
+   */
+  public void cancel() {
+    SqsSubscription s = subscription.get();
+    if (s != null) {
+      s.cancel();
+    }
+    onComplete();
+  }
+
+  /**
+   * @return ν;ȫʱ,гɹϢ;onError()ʱԸ쳣ʧ
+   */
+  public SqsFuture<Long> completion() {
+    return completion;
+  }
+
+  /**
+   * @return ѾûӦput
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * @return гɹϢ
+   */
+  public long getSucceeded() {
+    return succeeded.get();
+  }
+
+  /**
+   * @return ʧܵϢ,
+   */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  /**
+   * @return һʧܵĽ,ûʱΪnull
+   */
+  public SqsMsg getLastError() {
+    return lastError;
+  }
+
+}
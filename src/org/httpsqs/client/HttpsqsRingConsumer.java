@@ -0,0 +1,252 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ԤȷĻλڳ̺߳ʹ֮߳䴫Ϣ. ֻһ߳дλ,߳CASȡ,
+ * ̲,ҲΪÿϢSqsMsgbyte[]. ÿϢֻһ߳
+ */
+public class HttpsqsRingConsumer {
+  private final QueueHandle queue;
+  private final SlotHandler handler;
+  private final SqsWaitStrategy waitStrategy;
+  private final SqsBackoff backoff;
+  private final SqsSlot[] slots;
+  private final int mask;
+
+  private final Sequence cursor = new Sequence(-1); //Ѿ,ֻɳ߳д
+  private final Sequence workSequence = new Sequence(-1); //Ѿ߳ȡ
+  private final Sequence[] handlerSequences; //ÿ߳Ѿ,̲ܸ߳ǻûĲλ
+  private volatile boolean fetcherDone; //߳Ѿ˳,ٷµ
+
+  private final CountDownLatch stopping = new CountDownLatch(1); //shutdown()Ϊ0
+  private final CountDownLatch terminated; //̺߳ʹ߳ȫ˳Ϊ0
+  private final AtomicLong processed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private volatile SqsMsg lastError;
+
+  /**
+   * ֵ䵽һ,ڵŻʹԷĻʧЧ(α)
+   */
+  static final class Sequence extends AtomicLong {
+    private static final long serialVersionUID = 1L;
+    long p1, p2, p3, p4, p5, p6, p7;
+
+    Sequence(long initialValue) {
+      super(initialValue);
+    }
+  }
+
+  HttpsqsRingConsumer(HttpsqsClient client, String queue_name, String auth, SlotHandler handler,
+      SqsRingConfig config) throws UnsupportedEncodingException {
+    this.queue = client.queue(queue_name, auth);
+    this.handler = handler;
+    this.waitStrategy = config.getWaitStrategy() == null ? SqsWaitStrategy.PARKING : config.getWaitStrategy();
+    this.backoff = config.getBackoff() == null ? new SqsBackoff() : config.getBackoff();
+
+    int size = 1;
+    while (size < config.getRingSize() && size < (1 << 30)) {
+      size <<= 1;
+    }
+    this.slots = new SqsSlot[size];
+    for (int i = 0; i < size; i++) {
+      slots[i] = new SqsSlot(Math.max(16, config.getSlotCapacity()));
+    }
+    this.mask = size - 1;
+
+    int handlerThreads = Math.max(1, config.getHandlerThreads());
+    this.handlerSequences = new Sequence[handlerThreads];
+    for (int i = 0; i < handlerThreads; i++) {
+      handlerSequences[i] = new Sequence(-1);
+    }
+    this.terminated = new CountDownLatch(handlerThreads + 1);
+
+    final HttpsqsClient.SlotConverter converter = client.newSlotConverter();
+    SqsThreads.newThread(new Runnable() { //ȴ̲߳ʺ߳
+      public void run() {
+        try {
+          runFetcher(converter);
+        } finally {
+          fetcherDone = true;
+          terminated.countDown();
+        }
+      }
+    }, "HttpsqsRingConsumer-" + queue_name + "-fetch", false).start();
+
+    for (int i = 0; i < handlerThreads; i++) {
+      final Sequence sequence = handlerSequences[i];
+      SqsThreads.newThread(new Runnable() {
+        public void run() {
+          try {
+            runHandler(sequence);
+          } finally {
+            sequence.set(Long.MAX_VALUE); //ٵס߳
+            terminated.countDown();
+          }
+        }
+      }, "HttpsqsRingConsumer-" + queue_name + "-handler-" + (i + 1), false).start();
+    }
+  }
+
+  private void runFetcher(HttpsqsClient.SlotConverter converter) {
+    long next = cursor.get() + 1;
+    long gating = -1; //Ĵ߳С,ʱ¼
+    int counter = 0;
+    while (stopping.getCount() > 0) {
+      long wrapPoint = next - slots.length;
+      if (wrapPoint > gating) {
+        gating = minHandlerSequence();
+        if (wrapPoint > gating) { //λ,ȴ߳ڳλ
+          counter = waitStrategy.idle(counter);
+          continue;
+        }
+      }
+      counter = 0;
+
+      SqsSlot slot = slots[(int) next & mask];
+      converter.target = slot;
+      queue.get(converter);
+      if (slot.getPos() > 0) {
+        backoff.onMessage();
+        cursor.lazySet(next); //λڷ֮ǰд
+        next++;
+        continue;
+      }
+
+      if (slot.getStatus() != SqsStatus.GET_END) {
+        lastError = slot.toSqsMsg();
+      }
+      long millis = backoff.onEmpty();
+      long start = System.nanoTime();
+      try {
+        stopping.await(millis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        //ֻ߳shutdown(),ж
+      } finally {
+        backoff.recordIdle(System.nanoTime() - start);
+      }
+    }
+  }
+
+  private void runHandler(Sequence sequence) {
+    boolean claim = true;
+    long next = 0;
+    int counter = 0;
+    for (;;) {
+      if (claim) {
+        claim = false;
+        do {
+          next = workSequence.get() + 1;
+          sequence.lazySet(next - 1); //next֮ǰĶѾ
+        } while (!workSequence.compareAndSet(next - 1, next));
+      }
+
+      if (cursor.get() >= next) {
+        SqsSlot slot = slots[(int) next & mask];
+        try {
+          handler.onSlot(slot);
+          processed.incrementAndGet();
+        } catch (Throwable e) {
+          failed.incrementAndGet();
+        }
+        claim = true;
+        counter = 0;
+      } else if (fetcherDone) {
+        if (cursor.get() < next) { //ѾĶ
+          return;
+        }
+      } else {
+        counter = waitStrategy.idle(counter);
+      }
+    }
+  }
+
+  private long minHandlerSequence() {
+    long min = Long.MAX_VALUE;
+    for (Sequence sequence : handlerSequences) {
+      long value = sequence.get();
+      if (value < min) {
+        min = value;
+      }
+    }
+    return min;
+  }
+
+  /**
+   * ֹͣ,ȴ. Ѿ뻷λϢ
+   */
+  public void shutdown() {
+    stopping.countDown();
+  }
+
+  /**
+   * ȴ̺߳ʹ߳ȫ˳
+   *
+   * @return ʱfalse
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+
+  /**
+   * Źر: ֹͣ,ȴλеϢȫ
+   */
+  public void close() {
+    shutdown();
+    boolean interrupted = false;
+    for (;;) {
+      try {
+        terminated.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return λĲλ
+   */
+  public int getRingSize() {
+    return slots.length;
+  }
+
+  /**
+   * @return SlotHandlerصϢ
+   */
+  public long getProcessed() {
+    return processed.get();
+  }
+
+  /**
+   * @return SlotHandler׳쳣Ϣ
+   */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  /**
+   * @return һγĴ,ûʱΪnull
+   */
+  public SqsMsg getLastError() {
+    return lastError;
+  }
+
+  /**
+   * @return ն˱ܲ,ѯͿʱͳ
+   */
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+}
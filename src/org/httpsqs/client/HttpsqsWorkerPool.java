@@ -0,0 +1,325 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ߳. fetchThreads̸߳ѭgetEx,ȡϢexecutorִMessageHandler,кʹϢص.
+ * ѾлûдϢmaxInFlight,ΪʱSqsBackoff˱.
+ * KeyExtractorʱ: һ߳ˮ߳,hashֵϢ䵽lanes߳ͨ,ͬһϢе˳
+ */
+public class HttpsqsWorkerPool {
+  private final QueueHandle queue;
+  private final MessageHandler handler;
+  private final Executor executor;
+  private final ExecutorService ownExecutor; //ڲ̳߳,ʹⲿexecutorʱΪnull
+  private final SqsBackoff backoff;
+  private final Semaphore permits; //ʣԳеϢ
+  private final int fetchThreads;
+  private final KeyExtractor keyExtractor; //ʱΪnull
+  private final ExecutorService[] lanes; //ʱĵ߳ͨ,ʱΪnull
+  private final int batchSize; //ʱһˮ߳еϢ
+
+  private final CountDownLatch stopping = new CountDownLatch(1); //shutdown()Ϊ0,ͬʱ˱еĳ߳
+  private final AtomicInteger activeFetchers;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong processed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private volatile SqsMsg lastError;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition terminated = lock.newCondition(); //߳ȫ˳û;Ϣ
+
+  HttpsqsWorkerPool(HttpsqsClient client, final String queue_name, String auth, MessageHandler handler,
+      SqsWorkerConfig config) throws UnsupportedEncodingException {
+    this.queue = client.queue(queue_name, auth);
+    this.handler = handler;
+    this.backoff = config.getBackoff() == null ? new SqsBackoff() : config.getBackoff();
+    this.permits = new Semaphore(Math.max(1, config.getMaxInFlight()));
+    this.keyExtractor = config.getKeyExtractor();
+    this.fetchThreads = keyExtractor != null ? 1 : Math.max(1, config.getFetchThreads()); //̳߳޷֤˳
+    this.activeFetchers = new AtomicInteger(fetchThreads);
+    this.batchSize = client.getPipelineDepth();
+
+    if (keyExtractor != null) {
+      this.lanes = new ExecutorService[Math.max(1, config.getLanes())];
+      for (int i = 0; i < lanes.length; i++) {
+        lanes[i] = Executors.newSingleThreadExecutor(SqsThreads.factory("HttpsqsWorkerPool-" + queue_name + "-lane-"
+            + (i + 1) + "-", client.isVirtualThreads()));
+      }
+      this.executor = null;
+      this.ownExecutor = null;
+    } else if (config.getExecutor() != null) {
+      this.lanes = null;
+      this.executor = config.getExecutor();
+      this.ownExecutor = null;
+    } else {
+      this.lanes = null;
+      this.ownExecutor = SqsThreads.newExecutor("HttpsqsWorkerPool-" + queue_name + "-worker-",
+          Math.max(1, config.getWorkerThreads()), client.isVirtualThreads());
+      this.executor = ownExecutor;
+    }
+
+    for (int i = 0; i < fetchThreads; i++) {
+      Thread t = SqsThreads.newThread(new Runnable() {
+        public void run() {
+          try {
+            if (keyExtractor != null) {
+              runOrderedFetcher();
+            } else {
+              runFetcher();
+            }
+          } finally {
+            if (activeFetchers.decrementAndGet() == 0) {
+              signalIfTerminated();
+            }
+          }
+        }
+      }, "HttpsqsWorkerPool-" + queue_name + "-fetch-" + (i + 1), client.isVirtualThreads());
+      t.start();
+    }
+  }
+
+  private void runFetcher() {
+    while (stopping.getCount() > 0) {
+      permits.acquireUninterruptibly();
+      if (stopping.getCount() == 0) {
+        permits.release();
+        return;
+      }
+
+      SqsMsg msg = queue.getEx();
+      if (msg.pos > 0) {
+        backoff.onMessage();
+        dispatch(msg); //رչȡϢҲҪ
+        continue;
+      }
+
+      permits.release();
+      if (msg.status != SqsStatus.GET_END) {
+        lastError = msg;
+      }
+      idle();
+    }
+  }
+
+  /**
+   * ʱΨһĳ߳. ˮһγжϢ,Ӧ˳ǳе˳,˳䵽ͨ
+   */
+  private void runOrderedFetcher() {
+    while (stopping.getCount() > 0) {
+      permits.acquireUninterruptibly();
+      int n = 1;
+      while (n < batchSize && permits.tryAcquire()) {
+        n++;
+      }
+      if (stopping.getCount() == 0) {
+        permits.release(n);
+        return;
+      }
+
+      boolean got = false;
+      for (SqsMsg msg : queue.getMany(n)) {
+        if (msg.pos > 0) {
+          got = true;
+          dispatch(msg);
+        } else {
+          permits.release();
+          if (msg.status != SqsStatus.GET_END) {
+            lastError = msg;
+          }
+        }
+      }
+      if (got) {
+        backoff.onMessage();
+      } else {
+        idle();
+      }
+    }
+  }
+
+  /**
+   * ѯ˱ʱȴ,shutdown()ʱ
+   */
+  private void idle() {
+    long millis = backoff.onEmpty();
+    long start = System.nanoTime();
+    try {
+      stopping.await(millis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      //ֻ߳shutdown(),ж
+    } finally {
+      backoff.recordIdle(System.nanoTime() - start);
+    }
+  }
+
+  private void dispatch(final SqsMsg msg) {
+    inFlight.incrementAndGet();
+    Runnable task = new Runnable() {
+      public void run() {
+        try {
+          handler.onMessage(msg);
+          processed.incrementAndGet();
+        } catch (Throwable e) {
+          failed.incrementAndGet();
+        } finally {
+          permits.release();
+          if (inFlight.decrementAndGet() == 0) {
+            signalIfTerminated();
+          }
+        }
+      }
+    };
+    try {
+      if (lanes != null) {
+        lanes[laneOf(msg)].execute(task);
+      } else {
+        executor.execute(task);
+      }
+    } catch (RejectedExecutionException e) { //ϢѾ,ܶ,ڳ߳ﴦ
+      task.run();
+    }
+  }
+
+  private int laneOf(SqsMsg msg) {
+    Object key;
+    try {
+      key = keyExtractor.keyOf(msg);
+    } catch (RuntimeException e) {
+      key = null;
+    }
+    if (key == null) {
+      return 0;
+    }
+    int h = key.hashCode();
+    h ^= (h >>> 16); //hashCodeֻиλͬʱҲܷɢͨ
+    return (h & 0x7FFFFFFF) % lanes.length;
+  }
+
+  private void signalIfTerminated() {
+    lock.lock();
+    try {
+      if (isTerminated()) {
+        terminated.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * ֹͣ,ȴ. ѾȡϢ
+   */
+  public void shutdown() {
+    if (stopping.getCount() > 0) {
+      stopping.countDown();
+      permits.release(fetchThreads); //Ϊ;Ϣ̫ȴĳ߳
+    }
+  }
+
+  /**
+   * ȴ߳ȫ˳;Ϣȫ,֮رڲ̳߳
+   *
+   * @return ʱfalse
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (!isTerminated()) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = terminated.awaitNanos(nanos);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (ownExecutor != null) {
+      ownExecutor.shutdown();
+    }
+    if (lanes != null) {
+      for (ExecutorService lane : lanes) {
+        lane.shutdown();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Źر: ֹͣ,ȴ;Ϣȫ
+   */
+  public void close() {
+    shutdown();
+    boolean interrupted = false;
+    for (;;) {
+      try {
+        awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return ǷѾֹͣв;Ϣȫ
+   */
+  public boolean isTerminated() {
+    return activeFetchers.get() == 0 && inFlight.get() == 0;
+  }
+
+  /**
+   * @return ѾлûдϢ
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * @return MessageHandlerصϢ
+   */
+  public long getProcessed() {
+    return processed.get();
+  }
+
+  /**
+   * @return MessageHandler׳쳣Ϣ
+   */
+  public long getFailed() {
+    return failed.get();
+  }
+
+  /**
+   * @return һγĴ,ûʱΪnull
+   */
+  public SqsMsg getLastError() {
+    return lastError;
+  }
+
+  /**
+   * @return ն˱ܲ,ѯͿʱͳ
+   */
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+}
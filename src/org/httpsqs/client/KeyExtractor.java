@@ -0,0 +1,13 @@
+package org.httpsqs.client;
+
+/**
+ * Ϣȡ. ͬϢHttpsqsWorkerPoolͬһ߳ͨе˳
+ */
+public interface KeyExtractor {
+  /**
+   * @param msg
+   *          ȡϢ,pos0
+   * @return ,hashCode()ͨ;Ϊnull׳쳣ʱ䵽һͨ
+   */
+  Object keyOf(SqsMsg msg);
+}
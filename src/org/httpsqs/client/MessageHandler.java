@@ -0,0 +1,14 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsWorkerPoolȡϢĴص
+ */
+public interface MessageHandler {
+  /**
+   * һϢ. ڶ߳ͬʱ. ϢѾӷ,׳쳣ʱֻʧ,
+   *
+   * @param msg
+   *          ȡϢ,pos0
+   */
+  void onMessage(SqsMsg msg) throws Exception;
+}
@@ -0,0 +1,208 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * һеľ,HttpsqsClient.queue(queue_name, auth)ȡ. ʱкͷֽ,
+ * ʱֻѱ仯Ĳ(Content-Length, pos)д뵱ǰ߳̿ɸõĻ,ƴURL,ҲٵURLEncoder֤.
+ * ֵĺHttpsqsClientͬͬ
+ */
+public final class QueueHandle {
+  private final HttpsqsClient client;
+  private final String name;
+
+  private final String getUrl;
+  private final byte[] getRequest; //get
+  private final String putUrl;
+  private final byte[] putPrefix; //putContent-Lengthֵ֮ǰĲ
+  private final String viewUrl;
+  private final byte[] viewPrefix; //viewposֵ֮ǰĲ
+  private final byte[] viewSuffix; //viewposֵ֮Ĳ
+
+  private static final byte[] CRLFCRLF = { '\r', '\n', '\r', '\n' };
+
+  QueueHandle(HttpsqsClient client, String queue_name, String auth) throws UnsupportedEncodingException {
+    this.client = client;
+    this.name = queue_name;
+    String charset = client.getCharset();
+    String authParam = auth == null ? "" : "&auth=" + URLEncoder.encode(auth, charset);
+    String headers = client.headerLines(null, null);
+
+    this.getUrl = client.getUrl(queue_name, auth);
+    this.getRequest = client.requestHead("GET", getUrl, null, null, -1);
+
+    this.putUrl = client.putUrl(queue_name, auth);
+    this.putPrefix = ("POST " + putUrl + " HTTP/1.1\r\n" + headers + "Content-Length: ").getBytes("ISO-8859-1");
+
+    String viewPos = "/?charset=" + charset + "&name=" + URLEncoder.encode(queue_name, charset) + "&opt=view&pos=";
+    this.viewUrl = viewPos + "{pos}" + authParam;
+    this.viewPrefix = ("GET " + viewPos).getBytes("ISO-8859-1");
+    this.viewSuffix = (authParam + " HTTP/1.1\r\n" + headers + "\r\n").getBytes("ISO-8859-1");
+  }
+
+  /**
+   * @return 
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return HttpsqsClient
+   */
+  public HttpsqsClient getClient() {
+    return client;
+  }
+
+  /**
+   * 
+   *
+   * @see HttpsqsClient#get(String, String)
+   */
+  public String get() {
+    return client.process(getRequest, getRequest.length, null, getUrl, client.messageConverter);
+  }
+
+  /**
+   * 
+   *
+   * @see HttpsqsClient#getEx(String, String)
+   */
+  public SqsMsg getEx() {
+    return client.process(getRequest, getRequest.length, null, getUrl, client.msgConverter);
+  }
+
+  /**
+   * ,ϢƳٵһηʱ
+   *
+   * @see HttpsqsClient#getRaw(String, String)
+   */
+  public SqsRawMsg getRaw() {
+    return client.process(getRequest, getRequest.length, null, getUrl, client.rawConverter);
+  }
+
+  /**
+   * ,ָconverterתӦ
+   */
+  <V> V get(HttpsqsClient.ResultConverter<V> converter) {
+    return client.process(getRequest, getRequest.length, null, getUrl, converter);
+  }
+
+  /**
+   * 
+   *
+   * @see HttpsqsClient#getMany(String, int, String)
+   */
+  public List<SqsMsg> getMany(int n) {
+    if (n <= 0) {
+      return new ArrayList<SqsMsg>(0);
+    }
+    return client.processPipelined(Collections.nCopies(n, getRequest), null, getUrl, client.msgConverter);
+  }
+
+  /**
+   * ,ϢƳٵһηʱ
+   *
+   * @see #getMany(int)
+   */
+  List<SqsRawMsg> getManyRaw(int n) {
+    if (n <= 0) {
+      return new ArrayList<SqsRawMsg>(0);
+    }
+    return client.processPipelined(Collections.nCopies(n, getRequest), null, getUrl, client.rawConverter);
+  }
+
+  /**
+   * 
+   *
+   * @see HttpsqsClient#put(String, String, String)
+   */
+  public String put(String data) {
+    try {
+      byte[] body = client.putBody(data);
+      SqsBuffer head = putHead(body.length);
+      return client.process(head.array(), head.size(), body, putUrl, client.putTextConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + ex.getMessage();
+    }
+  }
+
+  /**
+   * 
+   *
+   * @see HttpsqsClient#putEx(String, String, String)
+   */
+  public SqsMsg putEx(String data) {
+    try {
+      byte[] body = client.putBody(data);
+      SqsBuffer head = putHead(body.length);
+      return client.process(head.array(), head.size(), body, putUrl, client.putMsgConverter);
+    } catch (UnsupportedEncodingException ex) {
+      return SqsMsg.error(ex);
+    }
+  }
+
+  /**
+   * ,ԭʼϢֽ
+   *
+   * @see HttpsqsClient#getBytes(String, String)
+   */
+  public byte[] getBytes() {
+    return client.process(getRequest, getRequest.length, null, getUrl, client.bytesConverter);
+  }
+
+  /**
+   * ,Ϣԭʼֽ
+   *
+   * @see HttpsqsClient#putBytes(String, byte[], String)
+   */
+  public SqsMsg putBytes(byte[] data) {
+    return putEncoded(HttpsqsClient.percentEncode(data, 0, data.length));
+  }
+
+  /**
+   * ,Ϣdatapositionlimitֽ֮
+   *
+   * @see HttpsqsClient#putBytes(String, ByteBuffer, String)
+   */
+  public SqsMsg putBytes(ByteBuffer data) {
+    return putEncoded(HttpsqsClient.percentEncode(data));
+  }
+
+  private SqsMsg putEncoded(byte[] body) {
+    SqsBuffer head = putHead(body.length);
+    return client.process(head.array(), head.size(), body, putUrl, client.putMsgConverter);
+  }
+
+  /**
+   * 鿴ָλõ
+   *
+   * @see HttpsqsClient#view(String, long, String)
+   */
+  public String view(long pos) {
+    SqsBuffer head = SqsBuffer.local();
+    head.append(viewPrefix);
+    head.appendDecimal(pos);
+    head.append(viewSuffix);
+    return client.process(head.array(), head.size(), null, viewUrl, client.messageConverter);
+  }
+
+  private SqsBuffer putHead(int contentLength) {
+    SqsBuffer head = SqsBuffer.local();
+    head.append(putPrefix);
+    head.appendDecimal(contentLength);
+    head.append(CRLFCRLF);
+    return head;
+  }
+
+  @Override
+  public String toString() {
+    return "QueueHandle [name=" + name + "]";
+  }
+
+}
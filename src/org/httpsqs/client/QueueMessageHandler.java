@@ -0,0 +1,16 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsFanInConsumerȡϢĴص
+ */
+public interface QueueMessageHandler {
+  /**
+   * һϢ. жеϢͬһ߳ε. ϢѾӷ,׳쳣ʱֻʧ,
+   *
+   * @param queue_name
+   *          ϢڵĶ
+   * @param msg
+   *          ȡϢ,pos0
+   */
+  void onMessage(String queue_name, SqsMsg msg) throws Exception;
+}
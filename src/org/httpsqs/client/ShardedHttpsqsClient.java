@@ -0,0 +1,283 @@
+package org.httpsqs.client;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ƬSqs4JĿͻ. ôڵһhash(Ketama)Ѷӳ䵽ڵ,ͬһͬһڵ;
+ * ӻɾһڵʱ,ֻдԼ1/NĶлĽڵ. ֵĺHttpsqsClientͬͬ
+ */
+public class ShardedHttpsqsClient {
+  public static final int DEFAULT_VIRTUAL_NODES = 160; //ÿڵڻϵڵ
+
+  private final int virtualNodes;
+  private final List<HttpsqsClient> nodes = new ArrayList<HttpsqsClient>(); //thisͬ
+  private volatile TreeMap<Long, HttpsqsClient> ring = new TreeMap<Long, HttpsqsClient>(); //дʱ,Ҳ
+
+  /**
+   * @param nodes
+   *          ڵHttpsqsClient,ڵ":˿"ʶ
+   */
+  public ShardedHttpsqsClient(Collection<HttpsqsClient> nodes) {
+    this(nodes, DEFAULT_VIRTUAL_NODES);
+  }
+
+  /**
+   * @param nodes
+   *          ڵHttpsqsClient,ڵ":˿"ʶ
+   * @param virtualNodes
+   *          ÿڵڻϵڵ,ԽֲԽ
+   */
+  public ShardedHttpsqsClient(Collection<HttpsqsClient> nodes, int virtualNodes) {
+    this.virtualNodes = Math.max(1, virtualNodes);
+    for (HttpsqsClient node : nodes) {
+      this.addNode(node);
+    }
+  }
+
+  /**
+   * һڵ,ԭڵϵһֶлӳ䵽ڵ
+   *
+   * @return ͬ":˿"ĽڵѾʱfalse
+   */
+  public synchronized boolean addNode(HttpsqsClient node) {
+    for (HttpsqsClient n : nodes) {
+      if (n.getHost().equals(node.getHost())) {
+        return false;
+      }
+    }
+    nodes.add(node);
+    TreeMap<Long, HttpsqsClient> copy = new TreeMap<Long, HttpsqsClient>(ring);
+    for (long point : points(node)) {
+      copy.put(point, node);
+    }
+    ring = copy;
+    return true;
+  }
+
+  /**
+   * ɾһڵ,ֻڵϵĶлӳ䵽ڵ. رձɾHttpsqsClient
+   *
+   * @param host
+   *          ":˿"
+   * @return ɾĽڵ,ʱnull
+   */
+  public synchronized HttpsqsClient removeNode(String host) {
+    for (HttpsqsClient node : nodes) {
+      if (node.getHost().equals(host)) {
+        nodes.remove(node);
+        TreeMap<Long, HttpsqsClient> copy = new TreeMap<Long, HttpsqsClient>(ring);
+        for (long point : points(node)) {
+          if (copy.get(point) == node) { //hashײʱɾڵĵ
+            copy.remove(point);
+          }
+        }
+        ring = copy;
+        return node;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return ǰеĽڵ
+   */
+  public synchronized List<HttpsqsClient> getNodes() {
+    return Collections.unmodifiableList(new ArrayList<HttpsqsClient>(nodes));
+  }
+
+  /**
+   * ȡöڵĽڵ: ϶hashֵ˳ʱ뷽ĵһڵ
+   *
+   * @throws IllegalStateException
+   *           ûнڵ
+   */
+  public HttpsqsClient nodeFor(String queue_name) {
+    TreeMap<Long, HttpsqsClient> r = ring;
+    if (r.isEmpty()) {
+      throw new IllegalStateException("No Sqs4J node");
+    }
+    Map.Entry<Long, HttpsqsClient> entry = r.ceilingEntry(hash(queue_name));
+    return entry != null ? entry.getValue() : r.firstEntry().getValue();
+  }
+
+  /**
+   * ÿmd5ժҪȡ432λĵ. ֻɾڵʱ
+   */
+  private long[] points(HttpsqsClient node) {
+    long[] points = new long[(virtualNodes + 3) / 4 * 4];
+    for (int i = 0; i < points.length / 4; i++) {
+      byte[] digest = md5(node.getHost() + "-" + i);
+      for (int j = 0; j < 4; j++) {
+        points[i * 4 + j] = hash(digest, j);
+      }
+    }
+    return points;
+  }
+
+  private static long hash(byte[] digest, int n) {
+    return ((long) (digest[3 + n * 4] & 0xFF) << 24) | ((long) (digest[2 + n * 4] & 0xFF) << 16)
+        | ((long) (digest[1 + n * 4] & 0xFF) << 8) | (digest[n * 4] & 0xFF);
+  }
+
+  /**
+   * õ32λhash: ַFNV-1a,MurmurHash3fmix32ɢ,. ÿҪ,md5
+   */
+  private static long hash(String key) {
+    int h = 0x811C9DC5;
+    for (int i = 0; i < key.length(); i++) {
+      h = (h ^ key.charAt(i)) * 0x01000193;
+    }
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h & 0xFFFFFFFFL;
+  }
+
+  private static byte[] md5(String key) {
+    try {
+      return MessageDigest.getInstance("MD5").digest(key.getBytes("UTF-8"));
+    } catch (NoSuchAlgorithmException e) { //ÿJavaƽ̨֧MD5UTF-8
+      throw new IllegalStateException(e);
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * رнڵHttpsqsClient
+   */
+  public synchronized void close() {
+    for (HttpsqsClient node : nodes) {
+      node.close();
+    }
+  }
+
+  /**
+   * @see HttpsqsClient#put(String, String, String)
+   */
+  public String put(String queue_name, String data, String auth) {
+    return this.nodeFor(queue_name).put(queue_name, data, auth);
+  }
+
+  /**
+   * @see HttpsqsClient#putEx(String, String, String)
+   */
+  public SqsMsg putEx(String queue_name, String data, String auth) {
+    return this.nodeFor(queue_name).putEx(queue_name, data, auth);
+  }
+
+  /**
+   * @see HttpsqsClient#get(String, String)
+   */
+  public String get(String queue_name, String auth) {
+    return this.nodeFor(queue_name).get(queue_name, auth);
+  }
+
+  /**
+   * @see HttpsqsClient#getEx(String, String)
+   */
+  public SqsMsg getEx(String queue_name, String auth) {
+    return this.nodeFor(queue_name).getEx(queue_name, auth);
+  }
+
+  /**
+   * @see HttpsqsClient#view(String, long, String)
+   */
+  public String view(String queue_name, long pos, String auth) {
+    return this.nodeFor(queue_name).view(queue_name, pos, auth);
+  }
+
+  /**
+   * @see HttpsqsClient#status(String)
+   */
+  public String status(String queue_name) {
+    return this.nodeFor(queue_name).status(queue_name);
+  }
+
+  /**
+   * @see HttpsqsClient#statusJson(String)
+   */
+  public String statusJson(String queue_name) {
+    return this.nodeFor(queue_name).statusJson(queue_name);
+  }
+
+  /**
+   * @see HttpsqsClient#getMany(String, int, String)
+   */
+  public List<SqsMsg> getMany(String queue_name, int n, String auth) {
+    return this.nodeFor(queue_name).getMany(queue_name, n, auth);
+  }
+
+  /**
+   * @see HttpsqsClient#putAll(String, List, String)
+   */
+  public List<SqsMsg> putAll(String queue_name, List<String> datas, String auth) {
+    return this.nodeFor(queue_name).putAll(queue_name, datas, auth);
+  }
+
+  /**
+   * ͬһϢе. ڽڵѶз,ÿڵϢֻһ,һ־ˮ߷
+   *
+   * @return ӳ,queue_names˳
+   * @see HttpsqsClient#putToAll(Collection, String, String)
+   */
+  public Map<String, SqsMsg> putToAll(Collection<String> queue_names, String data, String auth) {
+    Map<HttpsqsClient, List<String>> groups = new LinkedHashMap<HttpsqsClient, List<String>>();
+    for (String queue_name : queue_names) {
+      HttpsqsClient node = this.nodeFor(queue_name);
+      List<String> group = groups.get(node);
+      if (group == null) {
+        group = new ArrayList<String>();
+        groups.put(node, group);
+      }
+      group.add(queue_name);
+    }
+
+    Map<String, SqsMsg> byQueue = new HashMap<String, SqsMsg>();
+    for (Map.Entry<HttpsqsClient, List<String>> entry : groups.entrySet()) {
+      byQueue.putAll(entry.getKey().putToAll(entry.getValue(), data, auth));
+    }
+    Map<String, SqsMsg> results = new LinkedHashMap<String, SqsMsg>();
+    for (String queue_name : queue_names) {
+      results.put(queue_name, byQueue.get(queue_name));
+    }
+    return results;
+  }
+
+  /**
+   * ȡöڽڵϵľ. ֮ɾڵʱȻָԭĽڵ
+   *
+   * @see HttpsqsClient#queue(String, String)
+   */
+  public QueueHandle queue(String queue_name, String auth) throws UnsupportedEncodingException {
+    return this.nodeFor(queue_name).queue(queue_name, auth);
+  }
+
+  /**
+   * ȡ÷߼,ÿ"queue_name#i"ͨһhashڵ,nodeFor("queue_name#i")һ.
+   * ֤ڲͬĽڵ,ڵʱмͬһڵ. ֮ɾڵʱȻԭĽڵ
+   *
+   * @see HttpsqsClient#partitioned(String, int, String)
+   */
+  public SqsPartitionedQueue partitioned(String queue_name, int partitions, String auth)
+      throws UnsupportedEncodingException {
+    QueueHandle[] handles = new QueueHandle[Math.max(1, partitions)];
+    for (int i = 0; i < handles.length; i++) {
+      handles[i] = this.queue(SqsPartitionedQueue.partitionName(queue_name, i), auth);
+    }
+    return new SqsPartitionedQueue(queue_name, handles);
+  }
+
+}
@@ -0,0 +1,14 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsRingConsumerȡϢĴص
+ */
+public interface SlotHandler {
+  /**
+   * һλϢ. غλᱻһϢ,ҪҪԼ. ׳쳣ʱֻʧ
+   *
+   * @param slot
+   *          ϢڵĲλ,getPos()0
+   */
+  void onSlot(SqsSlot slot) throws Exception;
+}
@@ -0,0 +1,144 @@
+package org.httpsqs.client;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ϊʱѯ˱. ȡ"HTTPSQS_GET_END"ʱȴʱ䰴maxMillis,ͬʱ;
+ * һȡϢָinitialMillis. ͬʱͳƿѯıͿеȴʱ. Ա̹߳
+ */
+public class SqsBackoff {
+  private static final Random RANDOM = new Random();
+
+  private final long initialMillis;
+  private final long maxMillis;
+  private final double multiplier;
+  private final double jitter;
+
+  private final AtomicLong current; //һ˱ܵĻ׼ʱ()
+  private final AtomicLong polls = new AtomicLong();
+  private final AtomicLong emptyPolls = new AtomicLong();
+  private final AtomicLong idleNanos = new AtomicLong();
+
+  /**
+   * ʼ10,ÿη,1,20%
+   */
+  public SqsBackoff() {
+    this(10, 1000, 2.0, 0.2);
+  }
+
+  /**
+   * @param initialMillis
+   *          һȡ"HTTPSQS_GET_END"ĵȴʱ()
+   * @param maxMillis
+   *          ĵȴʱ()
+   * @param multiplier
+   *          ÿΪʱȴʱ
+   * @param jitter
+   *          ı[0, 1],ʵʵȴʱ[base * (1 - jitter), base]֮
+   */
+  public SqsBackoff(long initialMillis, long maxMillis, double multiplier, double jitter) {
+    this.initialMillis = Math.max(0, initialMillis);
+    this.maxMillis = Math.max(this.initialMillis, maxMillis);
+    this.multiplier = Math.max(1.0, multiplier);
+    this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    this.current = new AtomicLong(this.initialMillis);
+  }
+
+  /**
+   * ¼һȡϢѯ,˱ʱָʼֵ
+   */
+  public void onMessage() {
+    polls.incrementAndGet();
+    current.set(initialMillis);
+  }
+
+  /**
+   * ¼һûȡϢĿѯ,һε˱ʱ
+   *
+   * @return һӦõȴʱ(),Ѿ˶
+   */
+  public long onEmpty() {
+    polls.incrementAndGet();
+    emptyPolls.incrementAndGet();
+
+    long base;
+    long next;
+    do {
+      base = current.get();
+      next = Math.min(maxMillis, Math.max(base + 1, (long) (base * multiplier)));
+    } while (!current.compareAndSet(base, next));
+
+    if (jitter == 0 || base == 0) {
+      return base;
+    }
+    return base - (long) (base * jitter * RANDOM.nextDouble());
+  }
+
+  /**
+   * ѯ֮onEmpty()صʱ,ʱ
+   */
+  public void idle() throws InterruptedException {
+    long millis = onEmpty();
+    long start = System.nanoTime();
+    try {
+      if (millis > 0) {
+        Thread.sleep(millis);
+      }
+    } finally {
+      recordIdle(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * ɵ÷Լȴʱ,ʱ
+   */
+  void recordIdle(long nanos) {
+    idleNanos.addAndGet(nanos);
+  }
+
+  /**
+   * @return ѯ
+   */
+  public long getPolls() {
+    return polls.get();
+  }
+
+  /**
+   * @return ûȡϢѯ
+   */
+  public long getEmptyPolls() {
+    return emptyPolls.get();
+  }
+
+  /**
+   * @return ѯռѯı,ûѯʱΪ0
+   */
+  public double getEmptyPollRatio() {
+    long total = polls.get();
+    return total == 0 ? 0 : (double) emptyPolls.get() / total;
+  }
+
+  /**
+   * @return ΪΪյȴʱ()
+   */
+  public long getIdleMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(idleNanos.get());
+  }
+
+  /**
+   * @return һοѯ˱ܻ׼ʱ(),
+   */
+  public long getCurrentMillis() {
+    return current.get();
+  }
+
+  @Override
+  public String toString() {
+    return "SqsBackoff [initialMillis=" + initialMillis + ", maxMillis=" + maxMillis + ", multiplier=" + multiplier
+        + ", jitter=" + jitter + ", polls=" + polls + ", emptyPolls=" + emptyPolls + ", idleMillis="
+        + getIdleMillis() + "]";
+  }
+
+}
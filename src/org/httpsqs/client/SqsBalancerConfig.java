@@ -0,0 +1,84 @@
+package org.httpsqs.client;
+
+/**
+ * BalancedHttpsqsClientĽ۶
+ */
+public class SqsBalancerConfig {
+  private int failureThreshold = 3; //ʧܶٴκժڵ
+  private long openMillis = 5 * 1000; //ڵ㱻ժٶ()ɽָ̽̽
+  private long checkIntervalMillis = 1000; //ļ(),Сڵ0ʾ߳
+  private String healthQueue = "httpsqs_health"; //ʱ鿴״̬Ķ
+  private int maxAttempts = 2; //ʧʱೢԵĽڵ
+
+  public SqsBalancerConfig() {
+  }
+
+  /**
+   * @param failureThreshold
+   *          ʧܶٴκժڵ
+   * @param openMillis
+   *          ڵ㱻ժòָ̽()
+   */
+  public SqsBalancerConfig(int failureThreshold, long openMillis) {
+    this.failureThreshold = failureThreshold;
+    this.openMillis = openMillis;
+  }
+
+  public int getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  /**
+   * ֻпͻһĴ(ʧ,ʱ,HTTP)ʧ,"HTTPSQS_GET_END"Sqs4JӦ
+   */
+  public void setFailureThreshold(int failureThreshold) {
+    this.failureThreshold = failureThreshold;
+  }
+
+  public long getOpenMillis() {
+    return openMillis;
+  }
+
+  public void setOpenMillis(long openMillis) {
+    this.openMillis = openMillis;
+  }
+
+  public long getCheckIntervalMillis() {
+    return checkIntervalMillis;
+  }
+
+  /**
+   * status̽ÿڵ,ͬʱ½ڵӳ;ժĽڵ̽ɹָ.
+   * ʱ,ժopenMillisĽڵŹһ̽,ɹָ
+   */
+  public void setCheckIntervalMillis(long checkIntervalMillis) {
+    this.checkIntervalMillis = checkIntervalMillis;
+  }
+
+  public String getHealthQueue() {
+    return healthQueue;
+  }
+
+  public void setHealthQueue(String healthQueue) {
+    this.healthQueue = healthQueue;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * ֻнʱʧ(ӱܾ,ӳʱ,û·ɵ,϶ûз)ʱŻһڵ,ʱȴ,ظл߶ʧеϢ
+   */
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsBalancerConfig [failureThreshold=" + failureThreshold + ", openMillis=" + openMillis
+        + ", checkIntervalMillis=" + checkIntervalMillis + ", healthQueue=" + healthQueue + ", maxAttempts="
+        + maxAttempts + "]";
+  }
+
+}
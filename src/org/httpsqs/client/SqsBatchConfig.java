@@ -0,0 +1,67 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsBatchConsumer. ,ֽ,ȴʱκһȴﵽͽBatchHandler
+ */
+public class SqsBatchConfig {
+  private int maxBatchSize = 100; //һϢ
+  private long maxBatchBytes = 1024 * 1024; //һϢݵֽ,Ϣʱһ
+  private long maxWaitMillis = 100; //һĵһϢȡȴ()
+  private SqsBackoff backoff; //Ϊʱ˱ܲ,ΪnullʱʹĬֵ
+
+  public SqsBatchConfig() {
+  }
+
+  /**
+   * @param maxBatchSize
+   *          һϢ
+   * @param maxWaitMillis
+   *          һȴʱ()
+   */
+  public SqsBatchConfig(int maxBatchSize, long maxWaitMillis) {
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * ÿˮ߳еһ
+   */
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public long getMaxBatchBytes() {
+    return maxBatchBytes;
+  }
+
+  public void setMaxBatchBytes(long maxBatchBytes) {
+    this.maxBatchBytes = maxBatchBytes;
+  }
+
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  public void setMaxWaitMillis(long maxWaitMillis) {
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public void setBackoff(SqsBackoff backoff) {
+    this.backoff = backoff;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsBatchConfig [maxBatchSize=" + maxBatchSize + ", maxBatchBytes=" + maxBatchBytes + ", maxWaitMillis="
+        + maxWaitMillis + ", backoff=" + backoff + "]";
+  }
+
+}
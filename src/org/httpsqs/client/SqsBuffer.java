@@ -0,0 +1,104 @@
+package org.httpsqs.client;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Էʹõֽڻ,ֱӱ¶ڲ,toByteArray()ĸ.
+ * ÿ߳һֻʺ޵ƽ̨߳;߳ÿһ,Ͷ,߳ϲʹThreadLocal,ÿηµĻ
+ */
+final class SqsBuffer extends ByteArrayOutputStream {
+  private static final ThreadLocal<SqsBuffer> LOCAL = new ThreadLocal<SqsBuffer>() {
+    @Override
+    protected SqsBuffer initialValue() {
+      return new SqsBuffer(512);
+    }
+  };
+
+  static final int MAX_SHARED_BODY = 64 * 1024; //ȵӦݲʹøõĻ
+
+  private static final ThreadLocal<byte[]> BODY = new ThreadLocal<byte[]>() {
+    @Override
+    protected byte[] initialValue() {
+      return new byte[8192];
+    }
+  };
+
+  SqsBuffer(int size) {
+    super(size);
+  }
+
+  /**
+   * @return ǰ̵߳Ļ,Ѿ. ͬһ߳һȡõݻᱻ;߳ϷµĻ
+   */
+  static SqsBuffer local() {
+    if (SqsThreads.isVirtual()) {
+      return new SqsBuffer(512);
+    }
+    SqsBuffer buffer = LOCAL.get();
+    buffer.reset();
+    return buffer;
+  }
+
+  /**
+   * @return ǰ߳ǷʹøõӦݻ. ߳ÿηպù,Ȼһ64KBʡڴ
+   */
+  static boolean isShared() {
+    return !SqsThreads.isVirtual();
+  }
+
+  /**
+   * ǰ̸߳õӦݻ,ʱ,MAX_SHARED_BODY. ߳ϲҪ,isShared()
+   *
+   * @param length
+   *          Ҫĳ,ܳMAX_SHARED_BODY
+   */
+  static byte[] body(int length) {
+    byte[] b = BODY.get();
+    if (b.length < length) {
+      b = new byte[Math.min(Math.max(length, b.length * 2), MAX_SHARED_BODY)];
+      BODY.set(b);
+    }
+    return b;
+  }
+
+  /**
+   * @return ڲ,Ч[0, size())
+   */
+  byte[] array() {
+    return buf;
+  }
+
+  /**
+   * д. write(byte[])ͬ,IOException
+   */
+  void append(byte[] b) {
+    write(b, 0, b.length);
+  }
+
+  /**
+   * ASCIIʮдһ,ʱString
+   */
+  void appendDecimal(long value) {
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        append(Long.toString(value).getBytes());
+        return;
+      }
+      write('-');
+      value = -value;
+    }
+
+    int start = count;
+    do {
+      write((int) ('0' + value % 10));
+      value /= 10;
+    } while (value != 0);
+
+    for (int i = start, j = count - 1; i < j; i++, j--) { //д,ת
+      byte t = buf[i];
+      buf[i] = buf[j];
+      buf[j] = t;
+    }
+  }
+
+}
@@ -0,0 +1,273 @@
+package org.httpsqs.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+
+/**
+ * Sqs4JһHTTP/1.1־
+ */
+final class SqsConnection {
+  private final Socket socket;
+  private final InputStream in;
+  private final OutputStream out;
+  private final int readTimeout;
+  private final SqsHeaderParser headers = new SqsHeaderParser();
+  private byte[] line = new byte[128]; //ȡ״̬кͷĻ
+
+  long lastUsed; //һι黹ӳصʱ
+  boolean reused; //Ƿӳȡľ
+  boolean responseStarted; //ǷѾӦ
+
+  SqsConnection(String server, int port, int connectTimeout, int readTimeout) throws IOException {
+    this.readTimeout = readTimeout;
+    socket = new Socket();
+    try {
+      socket.setTcpNoDelay(true);
+      socket.setKeepAlive(true);
+      socket.connect(new InetSocketAddress(server, port), connectTimeout);
+      socket.setSoTimeout(readTimeout);
+      in = new BufferedInputStream(socket.getInputStream(), 8192);
+      out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+    } catch (IOException e) {
+      close();
+      throw connectFailed(server, port, e);
+    }
+    lastUsed = System.currentTimeMillis();
+  }
+
+  /**
+   * ʱʧ(ӱܾ,ӳʱ,û·,ʧܵ)ͳһConnectException,÷ݴж϶ûз
+   */
+  static ConnectException connectFailed(String server, int port, Throwable e) {
+    if (e instanceof ConnectException) {
+      return (ConnectException) e;
+    }
+    ConnectException ce = new ConnectException("Failed to connect to " + server + ":" + port + ": " + e);
+    ce.initCause(e);
+    return ce;
+  }
+
+  /**
+   * 󲢶ȡӦ. Content-LengthҲ̫Ӧݶ뵱ǰ̸߳õĻ,ͬһ̵߳һ֮ǰЧ
+   *
+   * @param head
+   *          Լͷ
+   * @param body
+   *          ,ûʱΪnull
+   * @return Ӧ
+   */
+  SqsResponse execute(byte[] head, int headLength, byte[] body) throws IOException {
+    responseStarted = false;
+    out.write(head, 0, headLength);
+    if (body != null) {
+      out.write(body);
+    }
+    out.flush();
+
+    return readResponse(true);
+  }
+
+  /**
+   * 󲢶ȡӦ
+   */
+  SqsResponse execute(byte[] head, SqsStreamBody body) throws IOException {
+    responseStarted = false;
+    out.write(head);
+    body.writeTo(out);
+    out.flush();
+
+    return readResponse(true);
+  }
+
+  /**
+   * дһ󵫲flush,Ͷ
+   */
+  void write(byte[] head, byte[] body) throws IOException {
+    out.write(head);
+    if (body != null) {
+      out.write(body);
+    }
+  }
+
+  void flush() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * ȡһӦ
+   *
+   * @param shareBody
+   *          ӦǷԶ뵱ǰ̸߳õĻ
+   */
+  SqsResponse readResponse(boolean shareBody) throws IOException {
+    int len = readLine();
+    if (len < 0) {
+      throw new EOFException("Connection closed by server");
+    }
+    responseStarted = true;
+
+    SqsHeaderParser h = headers;
+    h.parseStatusLine(line, len);
+    while ((len = readLine()) > 0) {
+      h.parseHeader(line, len);
+    }
+    if (len < 0) {
+      throw new EOFException("Connection closed by server");
+    }
+
+    boolean keepAlive = h.isKeepAlive();
+    byte[] body;
+    if (h.status == 204 || h.status == 304) {
+      body = new byte[0];
+    } else if (h.chunked) {
+      body = readChunked();
+    } else if (h.contentLength >= 0) {
+      if (h.contentLength > Integer.MAX_VALUE) {
+        throw new IOException("Content-Length too large: " + h.contentLength);
+      }
+      int length = (int) h.contentLength;
+      boolean shared = shareBody && length <= SqsBuffer.MAX_SHARED_BODY && SqsBuffer.isShared();
+      body = shared ? SqsBuffer.body(length) : new byte[length];
+      readFully(body, 0, length); //Content-Lengthһζ,в
+      return new SqsResponse(h.status, h.pos, keepAlive, body, length, shared);
+    } else {
+      body = readToEnd();
+      keepAlive = false;
+    }
+
+    return new SqsResponse(h.status, h.pos, keepAlive, body);
+  }
+
+  private byte[] readChunked() throws IOException {
+    ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    byte[] tmp = new byte[4096];
+    while (true) {
+      int len = readLine();
+      if (len < 0) {
+        throw new EOFException("Unexpected end of chunked stream");
+      }
+      int size = SqsHeaderParser.parseChunkSize(line, len);
+      if (size == 0) {
+        while (readLine() > 0) {
+          //trailer
+        }
+        return buf.toByteArray();
+      }
+      while (size > 0) {
+        int n = in.read(tmp, 0, Math.min(size, tmp.length));
+        if (n < 0) {
+          throw new EOFException("Unexpected end of chunked stream");
+        }
+        buf.write(tmp, 0, n);
+        size -= n;
+      }
+      readLine();
+    }
+  }
+
+  private byte[] readToEnd() throws IOException {
+    ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    byte[] tmp = new byte[4096];
+    int n;
+    while ((n = in.read(tmp)) != -1) {
+      buf.write(tmp, 0, n);
+    }
+    return buf.toByteArray();
+  }
+
+  private void readFully(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      int n = in.read(b, off, len);
+      if (n < 0) {
+        throw new EOFException("Unexpected end of stream");
+      }
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * ȡһеline,ȥβCRLF
+   *
+   * @return еĳ,ûжʱ-1
+   */
+  private int readLine() throws IOException {
+    int len = 0;
+    int c;
+    while ((c = in.read()) != -1) {
+      if (c == '\n') {
+        if (len > 0 && line[len - 1] == '\r') {
+          len--;
+        }
+        return len;
+      }
+      if (len == line.length) {
+        if (len >= 8192) {
+          throw new IOException("HTTP header line too long");
+        }
+        line = Arrays.copyOf(line, len * 2);
+      }
+      line[len++] = (byte) c;
+    }
+    return len == 0 ? -1 : len;
+  }
+
+  /**
+   * ټǷ,罻
+   */
+  boolean isValid() {
+    if (socket.isClosed() || !socket.isConnected() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+      return false;
+    }
+    try {
+      return in.available() == 0; //ϲӦδ
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * ̽Ƿѱر,1
+   */
+  boolean probe() {
+    if (!isValid()) {
+      return false;
+    }
+    try {
+      socket.setSoTimeout(1);
+      in.read(); //-1˵ѹر,˵״̬Ѿ
+      return false;
+    } catch (SocketTimeoutException e) {
+      return true;
+    } catch (IOException e) {
+      return false;
+    } finally {
+      try {
+        socket.setSoTimeout(readTimeout);
+      } catch (IOException e) {
+      }
+    }
+  }
+
+  void close() {
+    try {
+      socket.close();
+    } catch (IOException ex) {
+    }
+  }
+
+  boolean isClosed() {
+    return socket.isClosed();
+  }
+
+}
@@ -0,0 +1,480 @@
+package org.httpsqs.client;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * һserver:portϵHTTP/1.1־ӳ
+ */
+final class SqsConnectionPool implements SqsTransport {
+  private final String server;
+  private final int port;
+  private final int connectTimeout;
+  private final int readTimeout;
+  private final SqsPoolConfig config;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition available = lock.newCondition();
+  private final LinkedList<SqsConnection> idle = new LinkedList<SqsConnection>(); //ͷ黹
+  private int total = 0; //Ѿ(+ʹ)
+  private int probing = 0; //̽е,idle
+  private boolean closed = false;
+
+  private final ScheduledExecutorService evictor;
+
+  SqsConnectionPool(String server, int port, int connectTimeout, int readTimeout, SqsPoolConfig config) {
+    this.server = server;
+    this.port = port;
+    this.connectTimeout = connectTimeout;
+    this.readTimeout = readTimeout;
+    this.config = config;
+
+    if (config.getEvictionIntervalMillis() > 0) {
+      final String name = "HttpsqsClient-evictor-" + server + ":" + port;
+      evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, name);
+          t.setDaemon(true);
+          return t;
+        }
+      });
+      evictor.scheduleWithFixedDelay(new Runnable() {
+        public void run() {
+          evict();
+        }
+      }, config.getEvictionIntervalMillis(), config.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+    } else {
+      evictor = null;
+    }
+  }
+
+  /**
+   * óеӷ󲢶ȡӦ. õľڶӦǰEOF(Ѿر˿)ʱ,һһ;
+   * ʱ,Ѿ,طظл߶ʧеϢ
+   */
+  public SqsResponse execute(byte[] head, byte[] body) throws IOException {
+    return execute(head, head.length, body);
+  }
+
+  public SqsResponse execute(byte[] head, int headLength, byte[] body) throws IOException {
+    SqsConnection conn = borrow();
+    SqsResponse resp;
+    try {
+      resp = conn.execute(head, headLength, body);
+    } catch (IOException e) {
+      invalidate(conn);
+      if (!isStale(conn, e)) {
+        throw e;
+      }
+
+      conn = create();
+      try {
+        resp = conn.execute(head, headLength, body);
+      } catch (IOException ex) {
+        invalidate(conn);
+        throw ex;
+      }
+    } catch (RuntimeException e) {
+      invalidate(conn);
+      throw e;
+    }
+
+    release(conn, resp.keepAlive);
+    return resp;
+  }
+
+  /**
+   * ط,Ըõľ̽һǷѱر,ѹرյĻһ
+   */
+  public SqsResponse execute(byte[] head, SqsStreamBody body) throws IOException {
+    SqsConnection conn = borrow();
+    if (conn.reused && !conn.probe()) {
+      invalidate(conn);
+      conn = create();
+    }
+
+    SqsResponse resp;
+    try {
+      resp = conn.execute(head, body);
+    } catch (IOException e) {
+      invalidate(conn);
+      throw e;
+    } catch (RuntimeException e) {
+      invalidate(conn);
+      throw e;
+    }
+
+    release(conn, resp.keepAlive);
+    return resp;
+  }
+
+  public SqsFuture<SqsResponse> executeAsync(byte[] head, byte[] body) {
+    SqsFuture<SqsResponse> future = new SqsFuture<SqsResponse>();
+    try {
+      future.setResult(execute(head, body).detach());
+    } catch (IOException e) {
+      future.setFailure(e);
+    }
+    return future;
+  }
+
+  /**
+   * óеһһ. õľڶһӦǰEOFʱ,һһ;
+   * ʱԼӦʧʱ,ʣµʧ
+   */
+  public List<SqsFuture<SqsResponse>> executePipelined(List<byte[]> heads, List<byte[]> bodies, int depth) {
+    List<SqsFuture<SqsResponse>> futures = new ArrayList<SqsFuture<SqsResponse>>(heads.size());
+    for (int i = 0; i < heads.size(); i++) {
+      futures.add(new SqsFuture<SqsResponse>());
+    }
+    if (heads.isEmpty()) {
+      return futures;
+    }
+
+    try {
+      SqsConnection conn = borrow();
+      boolean reusable;
+      try {
+        reusable = pipeline(conn, heads, bodies, Math.max(1, depth), futures);
+      } catch (IOException e) {
+        invalidate(conn);
+        if (!isStale(conn, e)) {
+          throw e;
+        }
+
+        conn = create();
+        try {
+          reusable = pipeline(conn, heads, bodies, Math.max(1, depth), futures);
+        } catch (IOException ex) {
+          invalidate(conn);
+          throw ex;
+        }
+      } catch (RuntimeException e) {
+        invalidate(conn);
+        throw e;
+      }
+      release(conn, reusable);
+    } catch (IOException e) {
+      for (SqsFuture<SqsResponse> future : futures) {
+        future.setFailure(e); //ѾɵĲӰ
+      }
+    }
+    return futures;
+  }
+
+  /**
+   * жʧǷΪѱرյĿ: ûжӦ,EOF. ʱʱڴ,
+   */
+  private static boolean isStale(SqsConnection conn, IOException e) {
+    if (!conn.reused || conn.responseStarted || e instanceof SocketTimeoutException) {
+      return false;
+    }
+    return e instanceof EOFException || e instanceof SocketException;
+  }
+
+  /**
+   * depth;,ÿһӦдһ
+   *
+   * @return Ƿ񻹿Ը
+   */
+  private boolean pipeline(SqsConnection conn, List<byte[]> heads, List<byte[]> bodies, int depth,
+      List<SqsFuture<SqsResponse>> futures) throws IOException {
+    conn.responseStarted = false;
+    int n = heads.size();
+    int sent = 0;
+    SqsResponse resp = null;
+    for (int i = 0; i < n; i++) {
+      while (sent < n && sent - i < depth) {
+        conn.write(heads.get(sent), bodies == null ? null : bodies.get(sent));
+        sent++;
+      }
+      conn.flush();
+
+      resp = conn.readResponse(false); //Ӧת,ܹû
+      futures.get(i).setResult(resp);
+      if (!resp.keepAlive && i < n - 1) {
+        throw new EOFException("Connection closed by server");
+      }
+    }
+    return resp.keepAlive;
+  }
+
+  public boolean isNonBlocking() {
+    return false;
+  }
+
+  /**
+   * ӳȡһ,ûпӲѴʱȴ
+   */
+  SqsConnection borrow() throws IOException {
+    long maxWait = config.getMaxWaitMillis() < 0 ? connectTimeout : config.getMaxWaitMillis();
+    long nanos = TimeUnit.MILLISECONDS.toNanos(maxWait);
+
+    lock.lock();
+    try {
+      while (true) {
+        if (closed) {
+          throw new IOException("Connection pool closed");
+        }
+
+        SqsConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+          if (!config.isTestOnBorrow() || conn.isValid()) {
+            conn.reused = true;
+            return conn;
+          }
+          conn.close();
+          total--;
+        }
+
+        if (total < config.getMaxTotal()) {
+          total++;
+          break;
+        }
+
+        if (maxWait == 0) {
+          available.await();
+        } else {
+          if (nanos <= 0) {
+            throw new IOException("Timeout waiting for connection to " + server + ":" + port);
+          }
+          nanos = available.awaitNanos(nanos);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted waiting for connection to " + server + ":" + port);
+    } finally {
+      lock.unlock();
+    }
+
+    //Ѿռһ,⽨
+    try {
+      return new SqsConnection(server, port, connectTimeout, readTimeout);
+    } catch (IOException e) {
+      decrementTotal();
+      throw e;
+    }
+  }
+
+  /**
+   * һ滻ʧЧ,
+   */
+  private SqsConnection create() throws IOException {
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IOException("Connection pool closed");
+      }
+      total++;
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      return new SqsConnection(server, port, connectTimeout, readTimeout);
+    } catch (IOException e) {
+      decrementTotal();
+      throw e;
+    }
+  }
+
+  /**
+   * 黹
+   *
+   * @param reusable
+   *          Ƿ񻹿Ը
+   */
+  void release(SqsConnection conn, boolean reusable) {
+    if (!reusable || conn.isClosed()) {
+      invalidate(conn);
+      return;
+    }
+
+    lock.lock();
+    try {
+      if (closed) {
+        conn.close();
+        total--;
+      } else {
+        conn.lastUsed = System.currentTimeMillis();
+        idle.addFirst(conn);
+      }
+      available.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * رղһȡ
+   */
+  void invalidate(SqsConnection conn) {
+    conn.close();
+    decrementTotal();
+  }
+
+  private void decrementTotal() {
+    lock.lock();
+    try {
+      total--;
+      available.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * չԼѱرյĿ,minIdle
+   */
+  void evict() {
+    long now = System.currentTimeMillis();
+    LinkedList<SqsConnection> toProbe = new LinkedList<SqsConnection>();
+
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      long idleTimeout = config.getIdleTimeoutMillis();
+      int remaining = idle.size(); //ûлյĿ,̽еҲ
+      Iterator<SqsConnection> it = idle.descendingIterator(); //ûõӿʼ
+      while (it.hasNext()) {
+        SqsConnection conn = it.next();
+        if (idleTimeout > 0 && now - conn.lastUsed >= idleTimeout && remaining > config.getMinIdle()) {
+          it.remove();
+          conn.close();
+          total--;
+          remaining--;
+        } else if (config.isTestWhileIdle()) {
+          it.remove();
+          toProbe.add(conn);
+        }
+      }
+      probing += toProbe.size();
+    } finally {
+      lock.unlock();
+    }
+
+    //̽ڼӲڿб,ᱻ߳ȡ
+    LinkedList<SqsConnection> alive = new LinkedList<SqsConnection>();
+    for (SqsConnection conn : toProbe) {
+      if (conn.probe()) {
+        alive.addFirst(conn);
+      } else {
+        invalidate(conn);
+      }
+    }
+    restore(alive, toProbe.size());
+
+    ensureMinIdle();
+  }
+
+  /**
+   * ̽ӷŻؿбβ,ԭlastUsedȺ˳. ̽ڼ黹Ӷ,ͷ
+   *
+   * @param alive
+   *          ͷʹõ
+   * @param probed
+   *          ̽,Ѿرյ
+   */
+  private void restore(LinkedList<SqsConnection> alive, int probed) {
+    lock.lock();
+    try {
+      probing -= probed;
+      for (SqsConnection conn : alive) {
+        if (closed) {
+          conn.close();
+          total--;
+        } else {
+          idle.addLast(conn);
+        }
+      }
+      available.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void ensureMinIdle() {
+    while (true) {
+      lock.lock();
+      try {
+        if (closed || idle.size() >= config.getMinIdle() || total >= config.getMaxTotal()) {
+          return;
+        }
+        total++;
+      } finally {
+        lock.unlock();
+      }
+
+      SqsConnection conn;
+      try {
+        conn = new SqsConnection(server, port, connectTimeout, readTimeout);
+      } catch (IOException e) {
+        decrementTotal();
+        return;
+      }
+      release(conn, true);
+    }
+  }
+
+  public int getNumIdle() {
+    lock.lock();
+    try {
+      return idle.size() + probing;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return ʹõ
+   */
+  int getNumActive() {
+    lock.lock();
+    try {
+      return total - idle.size() - probing;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * رӳԼп,ʹеڹ黹ʱر
+   */
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      SqsConnection conn;
+      while ((conn = idle.pollFirst()) != null) {
+        conn.close();
+        total--;
+      }
+      available.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    if (evictor != null) {
+      evictor.shutdownNow();
+    }
+  }
+
+}
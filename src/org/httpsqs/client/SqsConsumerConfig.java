@@ -0,0 +1,100 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsConsumerԤȡѵ
+ */
+public class SqsConsumerConfig {
+  private int minPrefetch = 1; //Ԥȡȵ
+  private int maxPrefetch = 256; //Ԥȡȵ,ҲǱػϢ
+  private long idleWaitMillis = 10; //Ϊջ߳,ٴԤȡǰĳʼȴʱ()
+  private long maxIdleMillis = 1000; //Ϊʱȴʱ()
+  private double backoffMultiplier = 2.0; //Ϊʱȴʱ
+  private double backoffJitter = 0.2; //ȴʱı
+
+  public SqsConsumerConfig() {
+  }
+
+  /**
+   * @param minPrefetch
+   *          Ԥȡȵ
+   * @param maxPrefetch
+   *          Ԥȡȵ
+   */
+  public SqsConsumerConfig(int minPrefetch, int maxPrefetch) {
+    this.minPrefetch = minPrefetch;
+    this.maxPrefetch = maxPrefetch;
+  }
+
+  public int getMinPrefetch() {
+    return minPrefetch;
+  }
+
+  public void setMinPrefetch(int minPrefetch) {
+    this.minPrefetch = minPrefetch;
+  }
+
+  public int getMaxPrefetch() {
+    return maxPrefetch;
+  }
+
+  /**
+   * Ԥȡ[minPrefetch, maxPrefetch]֮䰴ٶȺһԤȡĺʱԶ. ԤȡϢѾӷ,
+   * ˳ʱûpoll()Ϣᶪʧ,ʱõСһЩ
+   */
+  public void setMaxPrefetch(int maxPrefetch) {
+    this.maxPrefetch = maxPrefetch;
+  }
+
+  public long getIdleWaitMillis() {
+    return idleWaitMillis;
+  }
+
+  public void setIdleWaitMillis(long idleWaitMillis) {
+    this.idleWaitMillis = idleWaitMillis;
+  }
+
+  public long getMaxIdleMillis() {
+    return maxIdleMillis;
+  }
+
+  /**
+   * гΪʱÿεȴʱidleWaitMillisbackoffMultipliermaxIdleMillis,һȡϢָ
+   */
+  public void setMaxIdleMillis(long maxIdleMillis) {
+    this.maxIdleMillis = maxIdleMillis;
+  }
+
+  public double getBackoffMultiplier() {
+    return backoffMultiplier;
+  }
+
+  public void setBackoffMultiplier(double backoffMultiplier) {
+    this.backoffMultiplier = backoffMultiplier;
+  }
+
+  public double getBackoffJitter() {
+    return backoffJitter;
+  }
+
+  /**
+   * ͬʱնʱ,̸Եĵȴʱ,ͬʱһ
+   */
+  public void setBackoffJitter(double backoffJitter) {
+    this.backoffJitter = backoffJitter;
+  }
+
+  /**
+   * @return ½˱ܲ
+   */
+  SqsBackoff newBackoff() {
+    return new SqsBackoff(idleWaitMillis, maxIdleMillis, backoffMultiplier, backoffJitter);
+  }
+
+  @Override
+  public String toString() {
+    return "SqsConsumerConfig [minPrefetch=" + minPrefetch + ", maxPrefetch=" + maxPrefetch + ", idleWaitMillis="
+        + idleWaitMillis + ", maxIdleMillis=" + maxIdleMillis + ", backoffMultiplier=" + backoffMultiplier
+        + ", backoffJitter=" + backoffJitter + "]";
+  }
+
+}
@@ -0,0 +1,155 @@
+package org.httpsqs.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * նеα. next()ηسеϢ,ȡ"HTTPSQS_GET_END"߳ʱ. Ϣˮߵgetȡ.
+ * trySplit()ֳͬһеĶα,Լ߳,ջѹĶ;һαΪպ,еαڽѾȡϢ.
+ * ÿαֻһ߳ʹ. гdrain(MessageHandler, int).
+ * <p>
+ * Java 8ϰװStreamʱ,Spliterators.spliteratorUnknownSize(cursor, 0)ֻᰴһαϢ,trySplit(),
+ * Ȼֻһ߳. Ҫг,SpliteratortrySplit()ӦõSqsCursor.trySplit(),÷ֳαװһµSpliterator,
+ * tryAdvance()hasNext()next(),estimateSize()Long.MAX_VALUE,characteristics()ΪCONCURRENT|NONNULL
+ */
+public class SqsCursor implements Iterator<SqsMsg> {
+  private final QueueHandle queue;
+  private final int batchSize;
+  private final AtomicBoolean exhausted; //ͬһα깲,ѿջ
+  private final AtomicReference<SqsMsg> lastError; //ͬһα깲
+
+  private final ArrayDeque<SqsMsg> buffer = new ArrayDeque<SqsMsg>(); //ѾлûзصϢ
+
+  SqsCursor(QueueHandle queue, int batchSize) {
+    this(queue, batchSize, new AtomicBoolean(), new AtomicReference<SqsMsg>());
+  }
+
+  private SqsCursor(QueueHandle queue, int batchSize, AtomicBoolean exhausted, AtomicReference<SqsMsg> lastError) {
+    this.queue = queue;
+    this.batchSize = Math.max(1, batchSize);
+    this.exhausted = exhausted;
+    this.lastError = lastError;
+  }
+
+  /**
+   * ûϢʱһ
+   */
+  public boolean hasNext() {
+    while (buffer.isEmpty()) {
+      if (exhausted.get()) {
+        return false;
+      }
+      for (SqsMsg msg : queue.getMany(batchSize)) {
+        if (msg.pos > 0) {
+          buffer.addLast(msg);
+        } else {
+          if (msg.status != SqsStatus.GET_END) {
+            lastError.compareAndSet(null, msg);
+          }
+          exhausted.set(true);
+        }
+      }
+    }
+    return true;
+  }
+
+  public SqsMsg next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return buffer.pollFirst();
+  }
+
+  /**
+   * ϢѾӷ,֧ɾ
+   */
+  public void remove() {
+    throw new UnsupportedOperationException("remove");
+  }
+
+  /**
+   * ֳһͬһгеĶα
+   *
+   * @return ѾΪʱnull
+   */
+  public SqsCursor trySplit() {
+    if (exhausted.get()) {
+      return null;
+    }
+    return new SqsCursor(queue, batchSize, exhausted, lastError);
+  }
+
+  /**
+   * parallelism̲߳ն: ֳparallelism - 1α,ÿ߳һαϢhandler,Ϊպȫŷ.
+   * handler׳쳣ʱϢ(ѾеϢܶ)
+   *
+   * @return handlerϢ
+   * @throws ExecutionException
+   *           handler׳쳣,causeǵһ쳣
+   */
+  public long drain(final MessageHandler handler, int parallelism) throws InterruptedException, ExecutionException {
+    final AtomicLong count = new AtomicLong();
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 1; i < parallelism; i++) {
+      final SqsCursor cursor = trySplit();
+      if (cursor == null) {
+        break;
+      }
+      Thread t = SqsThreads.newThread(new Runnable() {
+        public void run() {
+          cursor.drainTo(handler, count, failure);
+        }
+      }, "SqsCursor-" + queue.getName() + "-" + i, queue.getClient().isVirtualThreads());
+      t.start();
+      threads.add(t);
+    }
+
+    this.drainTo(handler, count, failure);
+    for (Thread t : threads) {
+      t.join();
+    }
+    if (failure.get() != null) {
+      throw new ExecutionException(failure.get());
+    }
+    return count.get();
+  }
+
+  private void drainTo(MessageHandler handler, AtomicLong count, AtomicReference<Throwable> failure) {
+    while (hasNext()) {
+      SqsMsg msg = next();
+      count.incrementAndGet();
+      try {
+        handler.onMessage(msg);
+      } catch (Throwable e) {
+        failure.compareAndSet(null, e);
+      }
+    }
+  }
+
+  /**
+   * @return ǷѾ"HTTPSQS_GET_END"ߴ,֮һα겻ٳ
+   */
+  public boolean isExhausted() {
+    return exhausted.get();
+  }
+
+  /**
+   * @return һαʱĵһ,ûʱΪnull. Ҳα
+   */
+  public SqsMsg getLastError() {
+    return lastError.get();
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+}
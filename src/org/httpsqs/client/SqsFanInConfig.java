@@ -0,0 +1,61 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsFanInConsumerĵ
+ */
+public class SqsFanInConfig {
+  private int quantum = 1; //ÿһÿȨصλԳеϢ
+  private long minSkipMillis = 10; //Ϊպһʱ()
+  private long maxSkipMillis = 1000; //Ϊʱʱ()
+
+  public SqsFanInConfig() {
+  }
+
+  /**
+   * @param minSkipMillis
+   *          Ϊպһʱ()
+   * @param maxSkipMillis
+   *          Ϊʱʱ()
+   */
+  public SqsFanInConfig(long minSkipMillis, long maxSkipMillis) {
+    this.minSkipMillis = minSkipMillis;
+    this.maxSkipMillis = maxSkipMillis;
+  }
+
+  public int getQuantum() {
+    return quantum;
+  }
+
+  /**
+   * һһȨسquantumϢ,ԽÿеϢԽ,ˮԽ,ǵȵԽ
+   */
+  public void setQuantum(int quantum) {
+    this.quantum = quantum;
+  }
+
+  public long getMinSkipMillis() {
+    return minSkipMillis;
+  }
+
+  /**
+   * ȡ"HTTPSQS_GET_END"Ķʱڲٷget,ΪʱmaxSkipMillis,ȡϢָ
+   */
+  public void setMinSkipMillis(long minSkipMillis) {
+    this.minSkipMillis = minSkipMillis;
+  }
+
+  public long getMaxSkipMillis() {
+    return maxSkipMillis;
+  }
+
+  public void setMaxSkipMillis(long maxSkipMillis) {
+    this.maxSkipMillis = maxSkipMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsFanInConfig [quantum=" + quantum + ", minSkipMillis=" + minSkipMillis + ", maxSkipMillis="
+        + maxSkipMillis + "]";
+  }
+
+}
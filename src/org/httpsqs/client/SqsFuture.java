@@ -0,0 +1,171 @@
+package org.httpsqs.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 첽Ľ,ȴ,ҲעʱĻص
+ */
+public class SqsFuture<V> implements Future<V> {
+  private static final int PENDING = 0;
+  private static final int COMPLETING = 1;
+  private static final int SUCCESS = 2;
+  private static final int FAILED = 3;
+  private static final int CANCELLED = 4;
+
+  private final AtomicInteger state = new AtomicInteger(PENDING);
+  private final CountDownLatch done = new CountDownLatch(1);
+  private volatile V result;
+  private volatile Throwable cause;
+  private List<SqsFutureListener<V>> listeners; //ɺΪnull
+
+  public SqsFuture() {
+  }
+
+  /**
+   * Գɹ
+   *
+   * @return Ѿɹ˷false
+   */
+  public boolean setResult(V result) {
+    if (!state.compareAndSet(PENDING, COMPLETING)) {
+      return false;
+    }
+    this.result = result;
+    complete(SUCCESS);
+    return true;
+  }
+
+  /**
+   * ʧ
+   *
+   * @return Ѿɹ˷false
+   */
+  public boolean setFailure(Throwable cause) {
+    if (!state.compareAndSet(PENDING, COMPLETING)) {
+      return false;
+    }
+    this.cause = cause;
+    complete(FAILED);
+    return true;
+  }
+
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    if (!state.compareAndSet(PENDING, COMPLETING)) {
+      return false;
+    }
+    this.cause = new CancellationException();
+    complete(CANCELLED);
+    return true;
+  }
+
+  private void complete(int finalState) {
+    state.set(finalState);
+    done.countDown();
+
+    List<SqsFutureListener<V>> toNotify;
+    synchronized (this) {
+      toNotify = listeners;
+      listeners = null;
+    }
+    if (toNotify != null) {
+      for (SqsFutureListener<V> listener : toNotify) {
+        notifyListener(listener);
+      }
+    }
+  }
+
+  /**
+   * עʱĻص,Ѿ,ڵǰ߳
+   */
+  public SqsFuture<V> addListener(SqsFutureListener<V> listener) {
+    synchronized (this) {
+      if (!isDone()) {
+        if (listeners == null) {
+          listeners = new ArrayList<SqsFutureListener<V>>(2);
+        }
+        listeners.add(listener);
+        return this;
+      }
+    }
+    notifyListener(listener);
+    return this;
+  }
+
+  private void notifyListener(SqsFutureListener<V> listener) {
+    try {
+      listener.operationComplete(this);
+    } catch (Throwable e) {
+      //ص쳣Ӱص
+    }
+  }
+
+  public boolean isCancelled() {
+    return state.get() == CANCELLED;
+  }
+
+  public boolean isDone() {
+    return state.get() > COMPLETING;
+  }
+
+  /**
+   * @return Ƿɹ
+   */
+  public boolean isSuccess() {
+    return state.get() == SUCCESS;
+  }
+
+  /**
+   * @return ʧܻȡԭ,ûɻɹʱΪnull
+   */
+  public Throwable getCause() {
+    return isDone() ? cause : null;
+  }
+
+  /**
+   * Ļȡ
+   *
+   * @return ɹʱĽ,ûɻʧʱΪnull
+   */
+  public V getNow() {
+    return isSuccess() ? result : null;
+  }
+
+  public V get() throws InterruptedException, ExecutionException {
+    done.await();
+    return report();
+  }
+
+  public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+    if (!done.await(timeout, unit)) {
+      throw new TimeoutException();
+    }
+    return report();
+  }
+
+  private V report() throws ExecutionException {
+    int s = state.get();
+    if (s == SUCCESS) {
+      return result;
+    }
+    if (s == CANCELLED) {
+      throw (CancellationException) cause;
+    }
+    throw new ExecutionException(cause);
+  }
+
+  @Override
+  public String toString() {
+    int s = state.get();
+    return "SqsFuture [" + (s == SUCCESS ? "result=" + result : s == FAILED || s == CANCELLED ? "cause=" + cause
+        : "pending") + "]";
+  }
+
+}
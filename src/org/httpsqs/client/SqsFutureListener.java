@@ -0,0 +1,14 @@
+package org.httpsqs.client;
+
+/**
+ * SqsFutureʱĻص
+ */
+public interface SqsFutureListener<V> {
+  /**
+   * 첽(ɹ,ʧܻȡ)ʱ. صI/Oִ߳,ҪĲ
+   *
+   * @param future
+   *          ɵSqsFuture
+   */
+  void operationComplete(SqsFuture<V> future);
+}
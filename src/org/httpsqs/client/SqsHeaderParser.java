@@ -0,0 +1,211 @@
+package org.httpsqs.client;
+
+import java.io.IOException;
+
+/**
+ * ֽڽHTTPӦ״̬кͷ,ӺNIO. ֻContent-Length,Transfer-Encoding,ConnectionPos,
+ * вString
+ */
+final class SqsHeaderParser {
+  private static final byte[] HTTP_ = ascii("http/");
+  private static final byte[] HTTP11 = ascii("http/1.1");
+  private static final byte[] CONTENT_LENGTH = ascii("content-length");
+  private static final byte[] TRANSFER_ENCODING = ascii("transfer-encoding");
+  private static final byte[] CONNECTION = ascii("connection");
+  private static final byte[] POS = ascii("pos");
+  private static final byte[] CHUNKED = ascii("chunked");
+  private static final byte[] CLOSE = ascii("close");
+  private static final byte[] KEEP_ALIVE = ascii("keep-alive");
+
+  int status; //HTTP״̬
+  boolean http11;
+  long contentLength; //ûContent-LengthʱΪ-1
+  boolean chunked;
+  boolean connectionClose; //Connection: close
+  boolean connectionKeepAlive; //Connection: keep-alive
+  long pos; //"Pos"ͷֵ,ûл߲ϷʱΪ-1
+
+  private static byte[] ascii(String s) {
+    byte[] b = new byte[s.length()];
+    for (int i = 0; i < b.length; i++) {
+      b[i] = (byte) s.charAt(i);
+    }
+    return b;
+  }
+
+  /**
+   * ״̬,ͬʱһӦͷ
+   */
+  void parseStatusLine(byte[] b, int len) throws IOException {
+    if (!startsWithIgnoreCase(b, 0, len, HTTP_)) {
+      throw new IOException("Invalid HTTP status line: " + toString(b, 0, len));
+    }
+    int sp = indexOf(b, 0, len, ' ');
+    if (sp < 0) {
+      throw new IOException("Invalid HTTP status line: " + toString(b, 0, len));
+    }
+    int start = sp + 1;
+    int end = indexOf(b, start, len, ' ');
+    long code = parseDecimal(b, start, end < 0 ? len : end);
+    if (code < 0 || code > 999) {
+      throw new IOException("Invalid HTTP status line: " + toString(b, 0, len));
+    }
+
+    status = (int) code;
+    http11 = startsWithIgnoreCase(b, 0, len, HTTP11);
+    contentLength = -1;
+    chunked = false;
+    connectionClose = false;
+    connectionKeepAlive = false;
+    pos = -1;
+  }
+
+  /**
+   * һͷ,ʶͷ
+   */
+  void parseHeader(byte[] b, int len) throws IOException {
+    int colon = indexOf(b, 0, len, ':');
+    if (colon <= 0) {
+      return;
+    }
+    int nameEnd = colon;
+    while (nameEnd > 0 && isSpace(b[nameEnd - 1])) {
+      nameEnd--;
+    }
+    int valueStart = colon + 1;
+    while (valueStart < len && isSpace(b[valueStart])) {
+      valueStart++;
+    }
+    int valueEnd = len;
+    while (valueEnd > valueStart && isSpace(b[valueEnd - 1])) {
+      valueEnd--;
+    }
+
+    if (equalsIgnoreCase(b, 0, nameEnd, CONTENT_LENGTH)) {
+      contentLength = parseDecimal(b, valueStart, valueEnd);
+      if (contentLength < 0) {
+        throw new IOException("Invalid Content-Length: " + toString(b, valueStart, valueEnd));
+      }
+    } else if (equalsIgnoreCase(b, 0, nameEnd, TRANSFER_ENCODING)) {
+      chunked = equalsIgnoreCase(b, valueStart, valueEnd, CHUNKED);
+    } else if (equalsIgnoreCase(b, 0, nameEnd, CONNECTION)) {
+      connectionClose = equalsIgnoreCase(b, valueStart, valueEnd, CLOSE);
+      connectionKeepAlive = equalsIgnoreCase(b, valueStart, valueEnd, KEEP_ALIVE);
+    } else if (equalsIgnoreCase(b, 0, nameEnd, POS)) {
+      pos = parseDecimal(b, valueStart, valueEnd);
+    }
+  }
+
+  /**
+   * @return HTTP汾ConnectionͷжǷԼ
+   */
+  boolean isKeepAlive() {
+    return http11 ? !connectionClose : connectionKeepAlive;
+  }
+
+  /**
+   * Ǹʮ
+   *
+   * @return Ϊ,зַʱ-1
+   */
+  static long parseDecimal(byte[] b, int start, int end) {
+    if (start >= end || end - start > 18) { //18λڲ
+      return -1;
+    }
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      int d = b[i] - '0';
+      if (d < 0 || d > 9) {
+        return -1;
+      }
+      value = value * 10 + d;
+    }
+    return value;
+  }
+
+  /**
+   * chunkĳ,";"֮չ
+   */
+  static int parseChunkSize(byte[] b, int len) throws IOException {
+    int end = indexOf(b, 0, len, ';');
+    if (end < 0) {
+      end = len;
+    }
+    int start = 0;
+    while (start < end && isSpace(b[start])) {
+      start++;
+    }
+    while (end > start && isSpace(b[end - 1])) {
+      end--;
+    }
+    if (start == end || end - start > 7) { //7λ16ڲ
+      throw new IOException("Invalid chunk size: " + toString(b, 0, len));
+    }
+
+    int size = 0;
+    for (int i = start; i < end; i++) {
+      int c = b[i];
+      int d;
+      if (c >= '0' && c <= '9') {
+        d = c - '0';
+      } else if (c >= 'a' && c <= 'f') {
+        d = c - 'a' + 10;
+      } else if (c >= 'A' && c <= 'F') {
+        d = c - 'A' + 10;
+      } else {
+        throw new IOException("Invalid chunk size: " + toString(b, 0, len));
+      }
+      size = size * 16 + d;
+    }
+    return size;
+  }
+
+  private static boolean isSpace(byte c) {
+    return c == ' ' || c == '\t';
+  }
+
+  private static int indexOf(byte[] b, int start, int end, char c) {
+    for (int i = start; i < end; i++) {
+      if (b[i] == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param lower
+   *          СдASCIIֽ
+   */
+  private static boolean equalsIgnoreCase(byte[] b, int start, int end, byte[] lower) {
+    return end - start == lower.length && startsWithIgnoreCase(b, start, end, lower);
+  }
+
+  private static boolean startsWithIgnoreCase(byte[] b, int start, int end, byte[] lower) {
+    if (end - start < lower.length) {
+      return false;
+    }
+    for (int i = 0; i < lower.length; i++) {
+      int c = b[start + i];
+      if (c >= 'A' && c <= 'Z') {
+        c += 'a' - 'A';
+      }
+      if (c != lower[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * ֻɴϢʱʹ
+   */
+  private static String toString(byte[] b, int start, int end) {
+    char[] chars = new char[end - start];
+    for (int i = start; i < end; i++) {
+      chars[i - start] = (char) (b[i] & 0xFF);
+    }
+    return new String(chars);
+  }
+
+}
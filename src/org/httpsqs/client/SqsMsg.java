@@ -3,15 +3,30 @@ package org.httpsqs.client;
 public class SqsMsg {
   public final long pos;
   public final String msg;
+  public final SqsStatus status; //
+  public final Throwable cause; //ͻһԭ(ʧ,ʱ,HTTP),ӦʱΪnull
 
   public SqsMsg(final long pos, final String msg) {
+    this(pos, msg, SqsStatus.parse(msg), null);
+  }
+
+  public SqsMsg(final long pos, final String msg, final SqsStatus status, final Throwable cause) {
     this.pos = pos;
     this.msg = msg;
+    this.status = status;
+    this.cause = cause;
+  }
+
+  /**
+   * ͻһĴ,msg"HTTPSQS_ERROR"ͷַ
+   */
+  static SqsMsg error(Throwable cause) {
+    return new SqsMsg(-1, HttpsqsClient.HTTPSQS_ERROR_PREFIX + ":" + cause.getMessage(), SqsStatus.ERROR, cause);
   }
 
   @Override
   public String toString() {
-    return "SqsMsg [pos=" + pos + ", msg=" + msg + "]";
+    return "SqsMsg [pos=" + pos + ", status=" + status + ", msg=" + msg + "]";
   }
 
 }
@@ -0,0 +1,690 @@
+package org.httpsqs.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector/SocketChannelķ. I/O̸߳Թһ鵽server:portĳ־,
+ * ıӦĽI/O߳,÷̲߳ΪI/Oռ
+ */
+final class SqsNioTransport implements SqsTransport {
+  private static final long TICK = 50; //鳬ʱļ()
+
+  private final String server;
+  private final int port;
+  private final int connectTimeout;
+  private final int readTimeout;
+  private final SqsPoolConfig config;
+
+  private final EventLoop[] loops;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile boolean closed = false;
+
+  SqsNioTransport(String server, int port, int connectTimeout, int readTimeout, SqsPoolConfig config) {
+    this.server = server;
+    this.port = port;
+    this.connectTimeout = connectTimeout;
+    this.readTimeout = readTimeout;
+    this.config = config;
+
+    int nThreads = Math.max(1, config.getNioThreads());
+    int maxChannels = Math.max(1, (config.getMaxTotal() + nThreads - 1) / nThreads);
+    int minIdle = (config.getMinIdle() + nThreads - 1) / nThreads;
+    loops = new EventLoop[nThreads];
+    for (int i = 0; i < nThreads; i++) {
+      try {
+        loops[i] = new EventLoop(maxChannels, minIdle);
+      } catch (IOException e) {
+        for (int j = 0; j < i; j++) {
+          loops[j].closeSelector();
+        }
+        throw new IllegalStateException("Cannot open selector", e);
+      }
+    }
+    for (int i = 0; i < nThreads; i++) {
+      Thread t = new Thread(loops[i], "HttpsqsClient-nio-" + server + ":" + port + "-" + (i + 1));
+      t.setDaemon(true);
+      loops[i].thread = t;
+      t.start();
+    }
+  }
+
+  public SqsResponse execute(byte[] head, byte[] body) throws IOException {
+    if (isEventLoopThread()) {
+      throw new IOException("Blocking call from Sqs4J I/O thread");
+    }
+
+    return await(executeAsync(head, body));
+  }
+
+  /**
+   * I/O߳첽д,÷жʱܻûд,Ըһͷ,÷head
+   */
+  public SqsResponse execute(byte[] head, int headLength, byte[] body) throws IOException {
+    return execute(Arrays.copyOf(head, headLength), body);
+  }
+
+  /**
+   * ȡ,ܷŵI/O߳,ڵ÷߳һʱӷ,͹ر
+   */
+  public SqsResponse execute(byte[] head, SqsStreamBody body) throws IOException {
+    if (closed) {
+      throw new IOException("Transport closed");
+    }
+    if (isEventLoopThread()) {
+      throw new IOException("Blocking call from Sqs4J I/O thread");
+    }
+
+    SqsConnection conn = new SqsConnection(server, port, connectTimeout, readTimeout);
+    try {
+      return conn.execute(head, body);
+    } finally {
+      conn.close();
+    }
+  }
+
+  /**
+   * ȴӦ
+   */
+  static SqsResponse await(SqsFuture<SqsResponse> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(false);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for response");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(String.valueOf(cause), cause);
+    }
+  }
+
+  public SqsFuture<SqsResponse> executeAsync(byte[] head, byte[] body) {
+    Request req = new Request(head, body);
+    submit(new Batch(new Request[] { req }, 1));
+    return req.future;
+  }
+
+  public List<SqsFuture<SqsResponse>> executePipelined(List<byte[]> heads, List<byte[]> bodies, int depth) {
+    Request[] reqs = new Request[heads.size()];
+    List<SqsFuture<SqsResponse>> futures = new ArrayList<SqsFuture<SqsResponse>>(reqs.length);
+    for (int i = 0; i < reqs.length; i++) {
+      reqs[i] = new Request(heads.get(i), bodies == null ? null : bodies.get(i));
+      futures.add(reqs[i].future);
+    }
+    if (reqs.length > 0) {
+      submit(new Batch(reqs, Math.max(1, depth)));
+    }
+    return futures;
+  }
+
+  private void submit(Batch batch) {
+    if (closed) {
+      batch.fail(new IOException("Transport closed"), 0);
+      return;
+    }
+
+    EventLoop loop = loops[(next.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+    loop.submit(batch);
+    if (closed && loop.incoming.remove(batch)) { //I/O߳̿Ѿ˳
+      batch.fail(new IOException("Transport closed"), 0);
+    }
+  }
+
+  public boolean isNonBlocking() {
+    return true;
+  }
+
+  /**
+   * ֻɸԵI/O̷߳,ͳ
+   */
+  public int getNumIdle() {
+    return -1;
+  }
+
+  private boolean isEventLoopThread() {
+    Thread current = Thread.currentThread();
+    for (EventLoop loop : loops) {
+      if (loop.thread == current) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public void close() {
+    closed = true;
+    for (EventLoop loop : loops) {
+      loop.selector.wakeup();
+    }
+  }
+
+  /**
+   * һ
+   */
+  private static final class Request {
+    final byte[] head;
+    final byte[] body;
+    final SqsFuture<SqsResponse> future = new SqsFuture<SqsResponse>();
+
+    Request(byte[] head, byte[] body) {
+      this.head = head;
+      this.body = body;
+    }
+  }
+
+  /**
+   * ͬһϰ˳ִеһ,depthͬʱ;(HTTP pipelining). depthΪ1Batch
+   */
+  private static final class Batch {
+    final Request[] requests;
+    final int depth;
+    int sent; //Ѿд
+    int received; //ѾյӦ
+    boolean retried; //ǷѾԹ
+    long waitDeadline; //ȴӵĽֹʱ
+
+    Batch(Request[] requests, int depth) {
+      this.requests = requests;
+      this.depth = depth;
+    }
+
+    boolean isDone() {
+      for (int i = received; i < requests.length; i++) {
+        if (!requests[i].future.isDone()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * ӵfromʼȫʧ
+     */
+    void fail(IOException e, int from) {
+      for (int i = from; i < requests.length; i++) {
+        requests[i].future.setFailure(e);
+      }
+    }
+  }
+
+  private static IOException unexpected(Throwable e) {
+    return e instanceof IOException ? (IOException) e : new IOException("Unexpected error in I/O thread: " + e, e);
+  }
+
+  /**
+   * һĳ־,ֻI/O߳
+   */
+  private static final class Channel {
+    final SocketChannel sc;
+    final SqsResponseDecoder decoder = new SqsResponseDecoder();
+    final LinkedList<ByteBuffer> out = new LinkedList<ByteBuffer>(); //ûд
+    SelectionKey key;
+    boolean connected;
+    long connectDeadline = Long.MAX_VALUE;
+    Batch batch; //ִе
+    long readDeadline = Long.MAX_VALUE;
+    boolean reused;
+    long lastUsed;
+
+    Channel(SocketChannel sc) {
+      this.sc = sc;
+    }
+  }
+
+  /**
+   * һI/O߳,ԼSelector,Ӻ͵ȴ
+   */
+  private final class EventLoop implements Runnable {
+    final Selector selector;
+    volatile Thread thread;
+    final ConcurrentLinkedQueue<Batch> incoming = new ConcurrentLinkedQueue<Batch>();
+    final AtomicBoolean wakenUp = new AtomicBoolean();
+
+    final int maxChannels;
+    final int minIdle;
+    final List<Channel> channels = new ArrayList<Channel>();
+    final LinkedList<Channel> idle = new LinkedList<Channel>(); //ͷ黹
+    final LinkedList<Batch> waiting = new LinkedList<Batch>(); //ȴӵ
+    final ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+    IOException lastConnectError; //connect()ʧܵԭ
+    long lastEvict = System.currentTimeMillis();
+
+    EventLoop(int maxChannels, int minIdle) throws IOException {
+      this.selector = Selector.open();
+      this.maxChannels = maxChannels;
+      this.minIdle = minIdle;
+    }
+
+    void submit(Batch batch) {
+      incoming.add(batch);
+      if (wakenUp.compareAndSet(false, true)) {
+        selector.wakeup();
+      }
+    }
+
+    public void run() {
+      try {
+        while (!closed) {
+          try {
+            selector.select(TICK);
+            wakenUp.set(false);
+
+            Batch batch;
+            while ((batch = incoming.poll()) != null) {
+              try {
+                dispatch(batch);
+              } catch (Throwable e) { //ûнӵܳʱ,ͻԶȴ
+                abort(batch, e);
+              }
+            }
+            processSelectedKeys();
+            processTimeouts();
+          } catch (ClosedSelectorException e) {
+            break;
+          } catch (Throwable e) {
+            //ӵ쳣Ѿdispatch()processSelectedKeys()ﴦ;select()߳ʱ鱾ʱI/O̲߳˳,һ
+          }
+        }
+      } finally {
+        shutdown();
+      }
+    }
+
+    private void dispatch(Batch batch) {
+      if (batch.isDone()) { //Ѿȡ
+        return;
+      }
+
+      Channel ch = idle.pollFirst();
+      if (ch != null) {
+        assign(ch, batch);
+        return;
+      }
+
+      if (channels.size() < maxChannels) {
+        ch = connect();
+        if (ch != null) {
+          assign(ch, batch);
+        } else {
+          batch.fail(lastConnectError, batch.received);
+        }
+        return;
+      }
+
+      long maxWait = config.getMaxWaitMillis() < 0 ? connectTimeout : config.getMaxWaitMillis();
+      batch.waitDeadline = maxWait > 0 ? System.currentTimeMillis() + maxWait : Long.MAX_VALUE;
+      waiting.add(batch);
+    }
+
+    private Channel connect() {
+      SocketChannel sc = null;
+      try {
+        sc = SocketChannel.open();
+        sc.configureBlocking(false);
+        sc.socket().setTcpNoDelay(true);
+        sc.socket().setKeepAlive(true);
+        Channel ch = new Channel(sc);
+        if (sc.connect(new InetSocketAddress(server, port))) {
+          ch.connected = true;
+          ch.key = sc.register(selector, SelectionKey.OP_READ, ch);
+        } else {
+          ch.key = sc.register(selector, SelectionKey.OP_CONNECT, ch);
+          if (connectTimeout > 0) {
+            ch.connectDeadline = System.currentTimeMillis() + connectTimeout;
+          }
+        }
+        channels.add(ch);
+        return ch;
+      } catch (IOException e) {
+        lastConnectError = SqsConnection.connectFailed(server, port, e);
+      } catch (RuntimeException e) { //UnresolvedAddressException
+        lastConnectError = SqsConnection.connectFailed(server, port, e);
+      }
+      if (sc != null) {
+        try {
+          sc.close();
+        } catch (IOException ex) {
+        }
+      }
+      return null;
+    }
+
+    /**
+     * һ󽻸,дǰdepth
+     */
+    private void assign(Channel ch, Batch batch) {
+      ch.batch = batch;
+      batch.sent = batch.received;
+      ch.readDeadline = readTimeout > 0 ? System.currentTimeMillis() + readTimeout : Long.MAX_VALUE;
+      while (batch.sent < batch.requests.length && batch.sent - batch.received < batch.depth) {
+        enqueue(ch, batch.requests[batch.sent++]);
+      }
+      if (ch.connected) {
+        flush(ch);
+      }
+    }
+
+    private void enqueue(Channel ch, Request req) {
+      ch.out.add(ByteBuffer.wrap(req.head));
+      if (req.body != null) {
+        ch.out.add(ByteBuffer.wrap(req.body));
+      }
+    }
+
+    private void flush(Channel ch) {
+      try {
+        while (!ch.out.isEmpty()) {
+          ByteBuffer buf = ch.out.getFirst();
+          ch.sc.write(buf);
+          if (buf.hasRemaining()) {
+            ch.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            return;
+          }
+          ch.out.removeFirst();
+        }
+        ch.key.interestOps(SelectionKey.OP_READ);
+      } catch (IOException e) {
+        channelError(ch, e, true);
+      }
+    }
+
+    private void processSelectedKeys() {
+      Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+      while (it.hasNext()) {
+        SelectionKey key = it.next();
+        it.remove();
+        Channel ch = (Channel) key.attachment();
+        try {
+          if (key.isConnectable()) {
+            finishConnect(ch);
+          }
+          if (key.isValid() && key.isWritable()) {
+            flush(ch);
+          }
+          if (key.isValid() && key.isReadable()) {
+            read(ch);
+          }
+        } catch (CancelledKeyException e) {
+          closeChannel(ch);
+        } catch (Throwable e) { //ֻϵ
+          channelError(ch, unexpected(e), false);
+        }
+      }
+    }
+
+    /**
+     * ʱ쳣: رѾֵ,ûɵʧ
+     */
+    private void abort(Batch batch, Throwable e) {
+      waiting.remove(batch);
+      for (Channel ch : new ArrayList<Channel>(channels)) {
+        if (ch.batch == batch) {
+          closeChannel(ch);
+        }
+      }
+      batch.fail(unexpected(e), batch.received);
+    }
+
+    private void finishConnect(Channel ch) {
+      try {
+        ch.sc.finishConnect();
+      } catch (IOException e) {
+        channelError(ch, SqsConnection.connectFailed(server, port, e), false);
+        return;
+      }
+      ch.connected = true;
+      ch.connectDeadline = Long.MAX_VALUE;
+      if (ch.batch != null) {
+        flush(ch);
+      } else {
+        ch.key.interestOps(SelectionKey.OP_READ);
+        release(ch);
+      }
+    }
+
+    private void read(Channel ch) {
+      ByteBuffer buf = readBuffer;
+      buf.clear();
+      int n;
+      try {
+        n = ch.sc.read(buf);
+      } catch (IOException e) {
+        channelError(ch, e, true);
+        return;
+      }
+
+      if (ch.batch == null) { //ӱر,յ˶
+        closeChannel(ch);
+        return;
+      }
+
+      try {
+        if (n < 0) {
+          SqsResponse resp = ch.decoder.decodeEof();
+          Batch batch = ch.batch;
+          closeChannel(ch);
+          batch.requests[batch.received++].future.setResult(resp);
+          if (batch.received < batch.requests.length) {
+            batch.fail(new IOException("Connection closed by server"), batch.received);
+          }
+          return;
+        }
+
+        buf.flip();
+        while (buf.hasRemaining()) {
+          Batch batch = ch.batch;
+          if (batch == null) {
+            closeChannel(ch); //յ˶
+            return;
+          }
+          SqsResponse resp = ch.decoder.decode(buf);
+          if (resp == null) {
+            break;
+          }
+          received(ch, batch, resp, buf.hasRemaining());
+        }
+      } catch (IOException e) {
+        channelError(ch, e, true);
+      }
+    }
+
+    /**
+     * յһӦ,дһ,ɺ黹
+     */
+    private void received(Channel ch, Batch batch, SqsResponse resp, boolean moreData) {
+      Request req = batch.requests[batch.received++];
+      ch.readDeadline = readTimeout > 0 ? System.currentTimeMillis() + readTimeout : Long.MAX_VALUE;
+
+      if (!resp.keepAlive) {
+        closeChannel(ch);
+        req.future.setResult(resp);
+        if (batch.received < batch.requests.length) {
+          batch.fail(new IOException("Connection closed by server"), batch.received);
+        }
+        return;
+      }
+
+      if (batch.received == batch.requests.length) {
+        ch.batch = null;
+        if (moreData) {
+          closeChannel(ch);
+        } else {
+          release(ch);
+        }
+      } else if (batch.sent < batch.requests.length) {
+        enqueue(ch, batch.requests[batch.sent++]);
+        flush(ch);
+      }
+      req.future.setResult(resp);
+    }
+
+    /**
+     * ӿ,һȴ߷Żؿб
+     */
+    private void release(Channel ch) {
+      ch.reused = true;
+      ch.lastUsed = System.currentTimeMillis();
+      ch.readDeadline = Long.MAX_VALUE;
+
+      Batch batch;
+      while ((batch = waiting.poll()) != null) {
+        if (!batch.isDone()) {
+          assign(ch, batch);
+          return;
+        }
+      }
+      idle.addFirst(ch);
+    }
+
+    /**
+     * ӳ,ر. õľڶκӦǰʧ,һһ
+     */
+    private void channelError(Channel ch, IOException e, boolean retryable) {
+      Batch batch = ch.batch;
+      boolean started = ch.decoder.isStarted();
+      closeChannel(ch);
+      if (batch == null) {
+        return;
+      }
+
+      if (retryable && ch.reused && !started && batch.received == 0 && !batch.retried) {
+        batch.retried = true;
+        dispatch(batch);
+      } else {
+        batch.fail(e, batch.received);
+      }
+    }
+
+    private void closeChannel(Channel ch) {
+      ch.batch = null;
+      ch.out.clear();
+      channels.remove(ch);
+      idle.remove(ch);
+      if (ch.key != null) {
+        ch.key.cancel();
+      }
+      try {
+        ch.sc.close();
+      } catch (IOException ex) {
+      }
+
+      //ڳ,Ϊȴ
+      while (!closed && !waiting.isEmpty() && channels.size() < maxChannels) {
+        Batch batch = waiting.poll();
+        if (!batch.isDone()) {
+          dispatch(batch);
+        }
+      }
+    }
+
+    private void processTimeouts() {
+      long now = System.currentTimeMillis();
+      for (Channel ch : new ArrayList<Channel>(channels)) {
+        if (!ch.connected && now >= ch.connectDeadline) {
+          channelError(ch, SqsConnection.connectFailed(server, port, new SocketTimeoutException("connect timed out")),
+              false);
+        } else if (ch.batch != null && now >= ch.readDeadline) {
+          channelError(ch, new SocketTimeoutException("Read timed out"), false);
+        }
+      }
+
+      for (Iterator<Batch> it = waiting.iterator(); it.hasNext();) {
+        Batch batch = it.next();
+        if (batch.isDone()) {
+          it.remove();
+        } else if (now >= batch.waitDeadline) {
+          it.remove();
+          batch.fail(new IOException("Timeout waiting for connection to " + server + ":" + port), batch.received);
+        }
+      }
+
+      long interval = config.getEvictionIntervalMillis();
+      if (interval > 0 && now - lastEvict >= interval) {
+        lastEvict = now;
+        evict(now);
+      }
+    }
+
+    /**
+     * չڵĿӲminIdle. رյĿӻᴥOP_READ,readѾص
+     */
+    private void evict(long now) {
+      long idleTimeout = config.getIdleTimeoutMillis();
+      if (idleTimeout > 0) {
+        while (idle.size() > minIdle) {
+          Channel ch = idle.getLast();
+          if (now - ch.lastUsed < idleTimeout) {
+            break;
+          }
+          closeChannel(ch);
+        }
+      }
+
+      int connecting = 0;
+      for (Channel ch : channels) {
+        if (!ch.connected && ch.batch == null) {
+          connecting++;
+        }
+      }
+      while (idle.size() + connecting < minIdle && channels.size() < maxChannels) {
+        Channel ch = connect();
+        if (ch == null) {
+          break;
+        }
+        if (ch.connected) {
+          release(ch);
+        } else {
+          connecting++;
+        }
+      }
+    }
+
+    private void shutdown() {
+      IOException closedError = new IOException("Transport closed");
+      Batch batch;
+      while ((batch = incoming.poll()) != null) {
+        batch.fail(closedError, batch.received);
+      }
+      while ((batch = waiting.poll()) != null) {
+        batch.fail(closedError, batch.received);
+      }
+      for (Channel ch : new ArrayList<Channel>(channels)) {
+        batch = ch.batch;
+        closeChannel(ch);
+        if (batch != null) {
+          batch.fail(closedError, batch.received);
+        }
+      }
+      closeSelector();
+    }
+
+    void closeSelector() {
+      try {
+        selector.close();
+      } catch (IOException e) {
+      }
+    }
+  }
+
+}
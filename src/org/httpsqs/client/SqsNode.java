@@ -0,0 +1,162 @@
+package org.httpsqs.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BalancedHttpsqsClientһڵ״̬: ;,ӳٵƽֵ,Լ۶. ʧܴﵽֵʱ۶,ڵ㱻ժ,
+ * openMillis֮ɽ̽,̽ɹ½;ʱŹһ̽,̽ɹŻָ.
+ * ۶ǰ,򿪺ųɹ󲻻ر۶
+ */
+public class SqsNode {
+  private static final double EWMA_WEIGHT = 0.2; //ƽֵеȨ
+
+  private final HttpsqsClient client;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicBoolean trialing = new AtomicBoolean(); //̽;
+  private volatile boolean open; //۶,ڵѱժ
+  private volatile long openedNanos; //۶򿪵ʱ(System.nanoTime())
+  private volatile double latencyNanos; //ӳٵƽֵ,
+
+  SqsNode(HttpsqsClient client) {
+    this.client = client;
+  }
+
+  void begin() {
+    outstanding.incrementAndGet();
+  }
+
+  /**
+   * ¼һĽ
+   *
+   * @param nanos
+   *          ĺʱ
+   * @param failed
+   *          ǷǿͻһĴ
+   * @param threshold
+   *          ʧܶٴκ۶
+   * @param trial
+   *          ǷtryTrial()Ź̽
+   */
+  void end(long nanos, boolean failed, int threshold, boolean trial) {
+    outstanding.decrementAndGet();
+    record(nanos, failed, threshold, trial);
+    if (trial) {
+      trialing.set(false);
+    }
+  }
+
+  /**
+   * ۶򿪳openNanos,Źһ̽
+   *
+   * @return Ƿȡ̽,ȡúend(..., true)黹
+   */
+  boolean tryTrial(long openNanos) {
+    return open && System.nanoTime() - openedNanos >= openNanos && trialing.compareAndSet(false, true);
+  }
+
+  /**
+   * ¼Ľ. ۶򿪳openNanosĽڵ̽ɹʱر۶
+   */
+  void probe(long nanos, boolean failed, int threshold, long openNanos) {
+    if (open && !failed && System.nanoTime() - openedNanos < openNanos) { //û̽ʱ,ֻӳ
+      updateLatency(nanos);
+      return;
+    }
+    record(nanos, failed, threshold, true);
+  }
+
+  /**
+   * @param probe
+   *          ̽,ֻܹر۶
+   */
+  private void record(long nanos, boolean failed, int threshold, boolean probe) {
+    requests.incrementAndGet();
+    updateLatency(nanos);
+    if (failed) {
+      failures.incrementAndGet();
+      if (consecutiveFailures.incrementAndGet() >= threshold || (open && probe)) { //̽ʧʱ¼ʱ
+        openedNanos = System.nanoTime();
+        open = true;
+      }
+    } else {
+      consecutiveFailures.set(0);
+      if (probe) {
+        open = false;
+      }
+    }
+  }
+
+  private synchronized void updateLatency(long nanos) {
+    latencyNanos = latencyNanos == 0 ? nanos : latencyNanos + (nanos - latencyNanos) * EWMA_WEIGHT;
+  }
+
+  double getLatencyNanos() {
+    return latencyNanos;
+  }
+
+  public HttpsqsClient getClient() {
+    return client;
+  }
+
+  /**
+   * @return ":˿"
+   */
+  public String getHost() {
+    return client.getHost();
+  }
+
+  /**
+   * @return ǷԽ,۶ʱΪfalse
+   */
+  public boolean isAvailable() {
+    return !open;
+  }
+
+  /**
+   * @return Ѿûн
+   */
+  public int getOutstanding() {
+    return outstanding.get();
+  }
+
+  /**
+   * @return ӳٵƽֵ()
+   */
+  public double getLatencyMillis() {
+    return latencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * @return ʧܵĴ
+   */
+  public int getConsecutiveFailures() {
+    return consecutiveFailures.get();
+  }
+
+  /**
+   * @return ͽܴ
+   */
+  public long getRequests() {
+    return requests.get();
+  }
+
+  /**
+   * @return ʧܴܵ
+   */
+  public long getFailures() {
+    return failures.get();
+  }
+
+  @Override
+  public String toString() {
+    return "SqsNode [host=" + getHost() + ", available=" + isAvailable() + ", outstanding=" + getOutstanding()
+        + ", latencyMillis=" + getLatencyMillis() + ", consecutiveFailures=" + getConsecutiveFailures() + "]";
+  }
+
+}
@@ -0,0 +1,156 @@
+package org.httpsqs.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ߼. һ߼зֲN"name#0".."name#N-1",Ƭʱӳ䵽ڵ,ڲͬĽڵ.
+ * һSqs4Jегжͬһputpos/getpos,Ӱ,.
+ * ߰ѡ,ͬһϢͬһﱣ˳;ͨassign()ֵһַ,ֻЩ
+ */
+public class SqsPartitionedQueue {
+  private final String name;
+  private final QueueHandle[] handles; //з,±Ƿ
+  private final int[] assigned; //ͼеķ
+  private final AtomicInteger putCursor = new AtomicInteger(); //еļ
+  private final AtomicInteger getCursor = new AtomicInteger(); //еļ
+
+  SqsPartitionedQueue(String name, QueueHandle[] handles) {
+    this(name, handles, all(handles.length));
+  }
+
+  private SqsPartitionedQueue(String name, QueueHandle[] handles, int[] assigned) {
+    this.name = name;
+    this.handles = handles;
+    this.assigned = assigned;
+  }
+
+  private static int[] all(int n) {
+    int[] partitions = new int[n];
+    for (int i = 0; i < n; i++) {
+      partitions[i] = i;
+    }
+    return partitions;
+  }
+
+  /**
+   * @return partition
+   */
+  public static String partitionName(String name, int partition) {
+    return name + "#" + partition;
+  }
+
+  /**
+   * ѷƽָconsumers: consumer߷ֵųconsumersΪconsumerķ.
+   * ߱ȷʱ,߷ֲ
+   *
+   * @param consumer
+   *          ,0ʼ
+   * @param consumers
+   *          
+   * @return ֻӷֵķеͼ,Ȼʹз
+   */
+  public SqsPartitionedQueue assign(int consumer, int consumers) {
+    if (consumers <= 0 || consumer < 0 || consumer >= consumers) {
+      throw new IllegalArgumentException("consumer " + consumer + " of " + consumers);
+    }
+    List<Integer> partitions = new ArrayList<Integer>();
+    for (int i = consumer; i < handles.length; i += consumers) {
+      partitions.add(i);
+    }
+    int[] result = new int[partitions.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = partitions.get(i);
+    }
+    return new SqsPartitionedQueue(name, handles, result);
+  }
+
+  /**
+   * @return ѡķ,Ϊnullʱ0
+   */
+  public int partitionFor(Object key) {
+    if (key == null) {
+      return 0;
+    }
+    int h = key.hashCode();
+    h ^= (h >>> 16); //hashCodeֻиλͬʱҲܷɢ
+    return (h & 0x7FFFFFFF) % handles.length;
+  }
+
+  /**
+   * ѡ
+   *
+   * @see HttpsqsClient#putEx(String, String, String)
+   */
+  public SqsMsg putEx(String data) {
+    return handles[(putCursor.getAndIncrement() & 0x7FFFFFFF) % handles.length].putEx(data);
+  }
+
+  /**
+   * ѡ,ͬһϢͬһﰴе˳
+   *
+   * @see HttpsqsClient#putEx(String, String, String)
+   */
+  public SqsMsg putEx(Object key, String data) {
+    return handles[partitionFor(key)].putEx(data);
+  }
+
+  /**
+   * ӷֵķ,һΪʱһ
+   *
+   * @return зֵķΪʱ"HTTPSQS_GET_END";ûзֵʱҲ"HTTPSQS_GET_END"
+   */
+  public SqsMsg getEx() {
+    SqsMsg result = null;
+    int start = getCursor.getAndIncrement() & 0x7FFFFFFF;
+    for (int i = 0; i < assigned.length; i++) {
+      SqsMsg msg = handles[assigned[(start + i) % assigned.length]].getEx();
+      if (msg.pos > 0) {
+        return msg;
+      }
+      if (result == null || msg.status != SqsStatus.GET_END) { //дʱش
+        result = msg;
+      }
+    }
+    return result != null ? result : new SqsMsg(-1, SqsStatus.GET_END.getText(), SqsStatus.GET_END, null);
+  }
+
+  /**
+   * ָķ
+   *
+   * @see HttpsqsClient#getEx(String, String)
+   */
+  public SqsMsg getEx(int partition) {
+    return handles[partition].getEx();
+  }
+
+  /**
+   * @return partitionĶо
+   */
+  public QueueHandle partition(int partition) {
+    return handles[partition];
+  }
+
+  /**
+   * @return 
+   */
+  public int getPartitions() {
+    return handles.length;
+  }
+
+  /**
+   * @return ͼеķ
+   */
+  public int[] getAssigned() {
+    return assigned.clone();
+  }
+
+  /**
+   * @return ߼
+   */
+  public String getName() {
+    return name;
+  }
+
+}
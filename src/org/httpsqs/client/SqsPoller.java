@@ -0,0 +1,77 @@
+package org.httpsqs.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getEx֮ϵ. ΪʱSqsBackoff˱ܺ,ԷͿյget
+ */
+public class SqsPoller {
+  private final QueueHandle queue;
+  private final SqsBackoff backoff;
+
+  SqsPoller(QueueHandle queue, SqsBackoff backoff) {
+    this.queue = queue;
+    this.backoff = backoff;
+  }
+
+  /**
+   * ,Ϊʱȴtimeout
+   *
+   * @return getExķֵͬ. ʱʱmsgΪ"HTTPSQS_GET_END";ʧ,֤ȴ,
+   */
+  public SqsMsg poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (;;) {
+      SqsMsg msg = queue.getEx();
+      if (msg.status != SqsStatus.GET_END) {
+        if (msg.pos > 0) {
+          backoff.onMessage();
+        }
+        return msg;
+      }
+
+      long remain = deadline - System.nanoTime();
+      if (remain <= 0) {
+        backoff.onEmpty();
+        return msg;
+      }
+      long millis = Math.min(backoff.onEmpty(), TimeUnit.NANOSECONDS.toMillis(remain) + 1);
+      long start = System.nanoTime();
+      try {
+        Thread.sleep(millis);
+      } finally {
+        backoff.recordIdle(System.nanoTime() - start);
+      }
+    }
+  }
+
+  /**
+   * ,ΪʱһֱȵϢΪֹ
+   *
+   * @return ȡϢ;ʧ,֤ȴ,msg"HTTPSQS_"ͷ
+   */
+  public SqsMsg take() throws InterruptedException {
+    for (;;) {
+      SqsMsg msg = queue.getEx();
+      if (msg.status != SqsStatus.GET_END) {
+        if (msg.pos > 0) {
+          backoff.onMessage();
+        }
+        return msg;
+      }
+      backoff.idle();
+    }
+  }
+
+  /**
+   * @return ˱ܲԺͿѯͳ
+   */
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public String getQueueName() {
+    return queue.getName();
+  }
+
+}
@@ -0,0 +1,139 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsClient־ӳص
+ */
+public class SqsPoolConfig {
+  private int minIdle = 0; //ٱֵĿ
+  private int maxTotal = 8; //(+ʹ)
+  private long maxWaitMillis = -1; //ӳغľʱȡӵȴʱ(),С0ʾʹconnectTimeout
+  private long idleTimeoutMillis = 60 * 1000; //ӵʱ(),Сڵ0ʾ
+  private long evictionIntervalMillis = 30 * 1000; //ӻ̵߳м(),Сڵ0ʾ߳
+  private boolean testOnBorrow = true; //ȡʱǷЧ
+  private boolean testWhileIdle = true; //߳ʱ̽Ƿѱر
+  private boolean nio = false; //Ƿʹ÷NIO
+  private int nioThreads = 1; //NIOI/O߳
+  private int pipelineDepth = 16; //һͬʱ;(ѷδյӦ)
+  private boolean virtualThreads = false; //Java 21Ƿִ߳
+
+  public SqsPoolConfig() {
+  }
+
+  /**
+   * @param minIdle
+   *          ٱֵĿ
+   * @param maxTotal
+   *          
+   */
+  public SqsPoolConfig(int minIdle, int maxTotal) {
+    this.minIdle = minIdle;
+    this.maxTotal = maxTotal;
+  }
+
+  public int getMinIdle() {
+    return minIdle;
+  }
+
+  public void setMinIdle(int minIdle) {
+    this.minIdle = minIdle;
+  }
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public void setMaxTotal(int maxTotal) {
+    this.maxTotal = maxTotal;
+  }
+
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  public void setMaxWaitMillis(long maxWaitMillis) {
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  public long getIdleTimeoutMillis() {
+    return idleTimeoutMillis;
+  }
+
+  public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+    this.idleTimeoutMillis = idleTimeoutMillis;
+  }
+
+  public long getEvictionIntervalMillis() {
+    return evictionIntervalMillis;
+  }
+
+  public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+    this.evictionIntervalMillis = evictionIntervalMillis;
+  }
+
+  public boolean isTestOnBorrow() {
+    return testOnBorrow;
+  }
+
+  public void setTestOnBorrow(boolean testOnBorrow) {
+    this.testOnBorrow = testOnBorrow;
+  }
+
+  public boolean isTestWhileIdle() {
+    return testWhileIdle;
+  }
+
+  public void setTestWhileIdle(boolean testWhileIdle) {
+    this.testWhileIdle = testWhileIdle;
+  }
+
+  public boolean isNio() {
+    return nio;
+  }
+
+  /**
+   * ʹûSelectorķ,I/O̹߳,÷ֻ߳ȴӦI/O
+   */
+  public void setNio(boolean nio) {
+    this.nio = nio;
+  }
+
+  public int getNioThreads() {
+    return nioThreads;
+  }
+
+  public void setNioThreads(int nioThreads) {
+    this.nioThreads = nioThreads;
+  }
+
+  public int getPipelineDepth() {
+    return pipelineDepth;
+  }
+
+  /**
+   * getMany,putAllһ,pipelineDepthͬʱȴӦ. Ϊ1ʱ˻
+   */
+  public void setPipelineDepth(int pipelineDepth) {
+    this.pipelineDepth = pipelineDepth;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * HttpsqsAsyncClient,HttpsqsWorkerPoolĴִ߳ʹ߳,ÿһ߳,Ҫ̳߳شС.
+   * ҪJava 21ϵлͶ汾JAR,Ȼʹƽ̨߳
+   */
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsPoolConfig [minIdle=" + minIdle + ", maxTotal=" + maxTotal + ", maxWaitMillis=" + maxWaitMillis
+        + ", idleTimeoutMillis=" + idleTimeoutMillis + ", evictionIntervalMillis=" + evictionIntervalMillis
+        + ", testOnBorrow=" + testOnBorrow + ", testWhileIdle=" + testWhileIdle + ", nio=" + nio + ", nioThreads="
+        + nioThreads + ", pipelineDepth=" + pipelineDepth + ", virtualThreads=" + virtualThreads + "]";
+  }
+
+}
@@ -0,0 +1,85 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsProducer첽е
+ */
+public class SqsProducerConfig {
+  private int batchSize = 100; //һ෢͵Ϣ
+  private long lingerMillis = 5; //һϢ뻺ȴ()ճһ
+  private long bufferMemory = 32 * 1024 * 1024; //ͷеϢֽ
+  private long maxBlockMillis = 60 * 1000; //ʱsend()ȴʱ(),С0ʾһֱȴ
+  private int senderThreads = 1; //̨߳
+
+  public SqsProducerConfig() {
+  }
+
+  /**
+   * @param batchSize
+   *          һ෢͵Ϣ
+   * @param lingerMillis
+   *          ճһȴʱ()
+   */
+  public SqsProducerConfig(int batchSize, long lingerMillis) {
+    this.batchSize = batchSize;
+    this.lingerMillis = lingerMillis;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * еϢﵽbatchSizeʱһ,ٵȴlingerMillis
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public long getLingerMillis() {
+    return lingerMillis;
+  }
+
+  /**
+   * Ϊ0ʱϢ,ϢʱȻ;0ʱӳٻȡ
+   */
+  public void setLingerMillis(long lingerMillis) {
+    this.lingerMillis = lingerMillis;
+  }
+
+  public long getBufferMemory() {
+    return bufferMemory;
+  }
+
+  /**
+   * ʱlingerMillis,send()пռΪֹ
+   */
+  public void setBufferMemory(long bufferMemory) {
+    this.bufferMemory = bufferMemory;
+  }
+
+  public long getMaxBlockMillis() {
+    return maxBlockMillis;
+  }
+
+  public void setMaxBlockMillis(long maxBlockMillis) {
+    this.maxBlockMillis = maxBlockMillis;
+  }
+
+  public int getSenderThreads() {
+    return senderThreads;
+  }
+
+  /**
+   * 1߳ʱͬʱ,ٱ֤Ϣsend()˳
+   */
+  public void setSenderThreads(int senderThreads) {
+    this.senderThreads = senderThreads;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsProducerConfig [batchSize=" + batchSize + ", lingerMillis=" + lingerMillis + ", bufferMemory="
+        + bufferMemory + ", maxBlockMillis=" + maxBlockMillis + ", senderThreads=" + senderThreads + "]";
+  }
+
+}
@@ -0,0 +1,11 @@
+package org.httpsqs.client;
+
+/**
+ * ݵķ,Reactive StreamsPublisher(java.util.concurrent.Flow.Publisher)Լͬ
+ */
+public interface SqsPublisher<T> {
+  /**
+   * . ȵsubscriber.onSubscribe(),֮request(n)onNext()
+   */
+  void subscribe(SqsSubscriber<? super T> subscriber);
+}
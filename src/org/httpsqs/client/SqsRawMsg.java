@@ -0,0 +1,119 @@
+package org.httpsqs.client;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * ԭʼӦֽڵĳϢ. ϢڵһεgetMsg()ʱŰַ,ֻ״ֽ̬߰תϵͳʱַת
+ */
+public final class SqsRawMsg {
+  public final long pos; //ǰеĶȡλõ,ʱΪ-1
+  private final byte[] data;
+  private final Charset charset;
+  private final SqsStatus status;
+  private final Throwable cause;
+  private String msg; //Ϣ,һηʱ
+
+  SqsRawMsg(long pos, byte[] data, Charset charset, SqsStatus status, Throwable cause) {
+    this.pos = pos;
+    this.data = data;
+    this.charset = charset;
+    this.status = status;
+    this.cause = cause;
+  }
+
+  /**
+   * @return Ϣ,SqsMsg.msgͬ
+   */
+  public String getMsg() {
+    String s = msg;
+    if (s == null) {
+      s = charset == null ? new String(data) : new String(data, charset);
+      msg = s;
+    }
+    return s;
+  }
+
+  /**
+   * @return ԭʼϢֽ,,÷Ҫ޸
+   */
+  public byte[] getBytes() {
+    return data;
+  }
+
+  /**
+   * @return ԭʼϢֽڵֻͼ
+   */
+  public ByteBuffer asByteBuffer() {
+    return ByteBuffer.wrap(data).asReadOnlyBuffer();
+  }
+
+  /**
+   * @return Ϣֽ
+   */
+  public int length() {
+    return data.length;
+  }
+
+  /**
+   * @return ַ
+   */
+  public Charset getCharset() {
+    return charset;
+  }
+
+  /**
+   * @return ,Ӧֽж,String
+   */
+  public SqsStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * @return ͻһԭ,ӦʱΪnull
+   */
+  public Throwable getCause() {
+    return cause;
+  }
+
+  /**
+   * @return Ƿ"HTTPSQS_GET_END"-Ϊ
+   */
+  public boolean isGetEnd() {
+    return status == SqsStatus.GET_END;
+  }
+
+  /**
+   * @return Ƿ"HTTPSQS_AUTH_FAILED"-֤
+   */
+  public boolean isAuthFailed() {
+    return status == SqsStatus.AUTH_FAILED;
+  }
+
+  /**
+   * @return Ƿ"HTTPSQS_ERROR"ͷ
+   */
+  public boolean isError() {
+    return status == SqsStatus.ERROR || status == SqsStatus.ERROR_NOFOUND;
+  }
+
+  /**
+   * @return ǷɹȡϢ
+   */
+  public boolean isOk() {
+    return status == SqsStatus.OK;
+  }
+
+  /**
+   * @return SqsMsg
+   */
+  public SqsMsg toSqsMsg() {
+    return new SqsMsg(pos, getMsg(), status, cause);
+  }
+
+  @Override
+  public String toString() {
+    return "SqsRawMsg [pos=" + pos + ", status=" + status + ", length=" + data.length + "]";
+  }
+
+}
@@ -0,0 +1,49 @@
+package org.httpsqs.client;
+
+import java.util.Arrays;
+
+/**
+ * Sqs4JһHTTPӦ
+ */
+final class SqsResponse {
+  final int status; //HTTP״̬
+  final long pos; //"Pos"ͷֵ,ûʱΪ-1
+  final boolean keepAlive; //ǷԼ
+  final byte[] body; //Ӧ,ֻǰlengthֽЧ
+  final int length; //Ӧݵĳ
+  final boolean shared; //bodyǷǵǰ̸߳õĻ,ͬһ̵߳һḲ
+
+  SqsResponse(int status, long pos, boolean keepAlive, byte[] body) {
+    this(status, pos, keepAlive, body, body.length, false);
+  }
+
+  SqsResponse(int status, long pos, boolean keepAlive, byte[] body, int length, boolean shared) {
+    this.status = status;
+    this.pos = pos;
+    this.keepAlive = keepAlive;
+    this.body = body;
+    this.length = length;
+    this.shared = shared;
+  }
+
+  /**
+   * @return õӦ,bodyǸõĻҳʱ
+   */
+  byte[] toByteArray() {
+    if (!shared && body.length == length) {
+      return body;
+    }
+    return Arrays.copyOf(body, length);
+  }
+
+  /**
+   * @return øûӦ,Խ߳
+   */
+  SqsResponse detach() {
+    if (!shared) {
+      return this;
+    }
+    return new SqsResponse(status, pos, keepAlive, toByteArray());
+  }
+
+}
@@ -0,0 +1,202 @@
+package org.httpsqs.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HTTP/1.1Ӧ,ڷ. ÿεdecodeֻѵһӦĽβ,ڻһӦ
+ */
+final class SqsResponseDecoder {
+  private static final int STATUS_LINE = 0;
+  private static final int HEADER = 1;
+  private static final int BODY = 2;
+  private static final int CHUNK_SIZE = 3;
+  private static final int CHUNK_DATA = 4;
+  private static final int CHUNK_END = 5;
+  private static final int TRAILER = 6;
+  private static final int BODY_TO_EOF = 7;
+
+  private int state = STATUS_LINE;
+  private byte[] line = new byte[128];
+  private int lineLength;
+  private boolean lineDone; //lineѾһ,´readLineʱ
+  private boolean started; //ǰӦǷѾ
+
+  private final SqsHeaderParser headers = new SqsHeaderParser();
+
+  private byte[] body;
+  private int bodyPos;
+  private ByteArrayOutputStream chunkBody;
+  private int chunkRemain;
+
+  /**
+   * @return ǰӦǷѾ
+   */
+  boolean isStarted() {
+    return started;
+  }
+
+  /**
+   * 
+   *
+   * @return Ӧ,ݲʱnull
+   */
+  SqsResponse decode(ByteBuffer in) throws IOException {
+    while (in.hasRemaining()) {
+      started = true;
+      switch (state) {
+      case STATUS_LINE:
+        if (readLine(in)) {
+          headers.parseStatusLine(line, lineLength);
+          state = HEADER;
+        }
+        break;
+      case HEADER:
+        if (readLine(in)) {
+          if (lineLength == 0) {
+            SqsResponse resp = beginBody();
+            if (resp != null) {
+              return resp;
+            }
+          } else {
+            headers.parseHeader(line, lineLength);
+          }
+        }
+        break;
+      case BODY: {
+        int n = Math.min(in.remaining(), body.length - bodyPos);
+        in.get(body, bodyPos, n);
+        bodyPos += n;
+        if (bodyPos == body.length) {
+          return finish(body);
+        }
+        break;
+      }
+      case CHUNK_SIZE:
+        if (readLine(in)) {
+          chunkRemain = SqsHeaderParser.parseChunkSize(line, lineLength);
+          state = chunkRemain == 0 ? TRAILER : CHUNK_DATA;
+        }
+        break;
+      case CHUNK_DATA: {
+        int n = Math.min(in.remaining(), chunkRemain);
+        if (in.hasArray()) {
+          chunkBody.write(in.array(), in.arrayOffset() + in.position(), n);
+          in.position(in.position() + n);
+        } else {
+          for (int i = 0; i < n; i++) {
+            chunkBody.write(in.get());
+          }
+        }
+        chunkRemain -= n;
+        if (chunkRemain == 0) {
+          state = CHUNK_END;
+        }
+        break;
+      }
+      case CHUNK_END:
+        if (readLine(in)) {
+          state = CHUNK_SIZE;
+        }
+        break;
+      case TRAILER:
+        if (readLine(in) && lineLength == 0) {
+          return finish(chunkBody.toByteArray());
+        }
+        break;
+      case BODY_TO_EOF: {
+        int n = in.remaining();
+        for (int i = 0; i < n; i++) {
+          chunkBody.write(in.get());
+        }
+        break;
+      }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * ӱԷرʱ
+   *
+   * @return ӹرΪӦ
+   */
+  SqsResponse decodeEof() throws IOException {
+    if (state == BODY_TO_EOF) {
+      return finish(chunkBody.toByteArray());
+    }
+    throw new EOFException(started ? "Unexpected end of stream" : "Connection closed by server");
+  }
+
+  private SqsResponse beginBody() throws IOException {
+    long contentLength = headers.contentLength;
+    if (headers.status == 204 || headers.status == 304) {
+      return finish(new byte[0]);
+    }
+    if (headers.chunked) {
+      chunkBody = new ByteArrayOutputStream();
+      state = CHUNK_SIZE;
+      return null;
+    }
+    if (contentLength >= 0) {
+      if (contentLength > Integer.MAX_VALUE) {
+        throw new IOException("Content-Length too large: " + contentLength);
+      }
+      body = new byte[(int) contentLength];
+      bodyPos = 0;
+      if (contentLength == 0) {
+        return finish(body);
+      }
+      state = BODY;
+      return null;
+    }
+    chunkBody = new ByteArrayOutputStream();
+    state = BODY_TO_EOF;
+    return null;
+  }
+
+  private SqsResponse finish(byte[] content) {
+    boolean keepAlive = state != BODY_TO_EOF && headers.isKeepAlive();
+    SqsResponse resp = new SqsResponse(headers.status, headers.pos, keepAlive, content);
+
+    state = STATUS_LINE;
+    started = false;
+    body = null;
+    chunkBody = null;
+    return resp;
+  }
+
+  /**
+   * ȡһеline,ȥβCRLF
+   *
+   * @return Ƿһ
+   */
+  private boolean readLine(ByteBuffer in) throws IOException {
+    if (lineDone) {
+      lineLength = 0;
+      lineDone = false;
+    }
+    while (in.hasRemaining()) {
+      byte c = in.get();
+      if (c == '\n') {
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+          lineLength--;
+        }
+        lineDone = true;
+        return true;
+      }
+      if (lineLength == line.length) {
+        if (lineLength >= 8192) {
+          throw new IOException("HTTP header line too long");
+        }
+        line = Arrays.copyOf(line, lineLength * 2);
+      }
+      line[lineLength++] = c;
+    }
+    return false;
+  }
+
+}
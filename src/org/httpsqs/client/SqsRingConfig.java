@@ -0,0 +1,76 @@
+package org.httpsqs.client;
+
+/**
+ * HttpsqsRingConsumerλ
+ */
+public class SqsRingConfig {
+  private int ringSize = 1024; //λ,ȡ2
+  private int slotCapacity = 1024; //ÿλԤȷֽ,ϢʱԶ
+  private int handlerThreads = 1; //ִSlotHandler߳
+  private SqsWaitStrategy waitStrategy = SqsWaitStrategy.PARKING; //ûвλûϢʱĵȴʽ
+  private SqsBackoff backoff; //Ϊʱ˱ܲ,ΪnullʱʹĬֵ
+
+  public SqsRingConfig() {
+  }
+
+  /**
+   * @param ringSize
+   *          λ
+   * @param handlerThreads
+   *          ִSlotHandler߳
+   */
+  public SqsRingConfig(int ringSize, int handlerThreads) {
+    this.ringSize = ringSize;
+    this.handlerThreads = handlerThreads;
+  }
+
+  public int getRingSize() {
+    return ringSize;
+  }
+
+  public void setRingSize(int ringSize) {
+    this.ringSize = ringSize;
+  }
+
+  public int getSlotCapacity() {
+    return slotCapacity;
+  }
+
+  public void setSlotCapacity(int slotCapacity) {
+    this.slotCapacity = slotCapacity;
+  }
+
+  public int getHandlerThreads() {
+    return handlerThreads;
+  }
+
+  public void setHandlerThreads(int handlerThreads) {
+    this.handlerThreads = handlerThreads;
+  }
+
+  public SqsWaitStrategy getWaitStrategy() {
+    return waitStrategy;
+  }
+
+  /**
+   * BUSY_SPINYIELDINGӳ,ÿ߳һֱռCPU,߳ҪеCPU
+   */
+  public void setWaitStrategy(SqsWaitStrategy waitStrategy) {
+    this.waitStrategy = waitStrategy;
+  }
+
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public void setBackoff(SqsBackoff backoff) {
+    this.backoff = backoff;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsRingConfig [ringSize=" + ringSize + ", slotCapacity=" + slotCapacity + ", handlerThreads="
+        + handlerThreads + ", waitStrategy=" + waitStrategy + ", backoff=" + backoff + "]";
+  }
+
+}
@@ -0,0 +1,86 @@
+package org.httpsqs.client;
+
+import java.nio.charset.Charset;
+
+/**
+ * HttpsqsRingConsumerλԤȷĲλ. ʱӦֱӸƵλõ,Ϣʱڴ
+ */
+public final class SqsSlot {
+  private long pos = -1;
+  private SqsStatus status;
+  private byte[] data;
+  private int length;
+  private Charset charset;
+  private Throwable cause;
+
+  SqsSlot(int capacity) {
+    this.data = new byte[capacity];
+  }
+
+  /**
+   * Ӧ,ʱ
+   */
+  void set(long pos, byte[] b, int len, SqsStatus status, Charset charset, Throwable cause) {
+    if (data.length < len) {
+      data = new byte[Math.max(len, data.length * 2)];
+    }
+    System.arraycopy(b, 0, data, 0, len);
+    this.pos = pos;
+    this.length = len;
+    this.status = status;
+    this.charset = charset;
+    this.cause = cause;
+  }
+
+  /**
+   * @return ǰеĶȡλõ,ʱΪ-1
+   */
+  public long getPos() {
+    return pos;
+  }
+
+  public SqsStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * @return õڲ,Ч[0, getLength()). ᱻ,Ҫ
+   */
+  public byte[] getData() {
+    return data;
+  }
+
+  /**
+   * @return Ϣֽ
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * @return ͻһԭ,ӦʱΪnull
+   */
+  public Throwable getCause() {
+    return cause;
+  }
+
+  /**
+   * @return Ϣ,ÿεöµString
+   */
+  public String getMsg() {
+    return charset == null ? new String(data, 0, length) : new String(data, 0, length, charset);
+  }
+
+  /**
+   * @return ƳSqsMsg,ڴ
+   */
+  public SqsMsg toSqsMsg() {
+    return new SqsMsg(pos, getMsg(), status, cause);
+  }
+
+  @Override
+  public String toString() {
+    return "SqsSlot [pos=" + pos + ", status=" + status + ", length=" + length + "]";
+  }
+
+}
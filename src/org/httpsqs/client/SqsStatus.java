@@ -0,0 +1,102 @@
+package org.httpsqs.client;
+
+/**
+ * Sqs4JвĽ,ӦݵĿͷֽж,String
+ */
+public enum SqsStatus {
+  /** ȡϢ,Sqs4J״ַ̬Ӧ */
+  OK(null),
+  /** гɹ */
+  PUT_OK("HTTPSQS_PUT_OK"),
+  /**  */
+  PUT_END("HTTPSQS_PUT_END"),
+  /** д */
+  PUT_ERROR("HTTPSQS_PUT_ERROR"),
+  /** Ϊ */
+  GET_END("HTTPSQS_GET_END"),
+  /** ֤ */
+  AUTH_FAILED("HTTPSQS_AUTH_FAILED"),
+  /** viewλõûϢ */
+  ERROR_NOFOUND("HTTPSQS_ERROR_NOFOUND"),
+  /** "HTTPSQS_ERROR"ͷ,ʧ,ʱȿͻһĴ */
+  ERROR(HttpsqsClient.HTTPSQS_ERROR_PREFIX);
+
+  private static final SqsStatus[] VALUES = values();
+  private static final int PREFIX_LENGTH = "HTTPSQS_".length();
+
+  private final String text;
+  private final byte[] bytes;
+
+  private SqsStatus(String text) {
+    this.text = text;
+    if (text == null) {
+      this.bytes = null;
+    } else {
+      this.bytes = new byte[text.length()];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = (byte) text.charAt(i);
+      }
+    }
+  }
+
+  /**
+   * @return Sqs4Jص״ַ̬,OKnull. ERRORصǰ׺"HTTPSQS_ERROR"
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * @return ǷǳɹĽ
+   */
+  public boolean isSuccess() {
+    return this == OK || this == PUT_OK;
+  }
+
+  /**
+   * жӦݵĽ. ״ַ̬ASCII,ֱӱȽֽ
+   *
+   * @param b
+   *          Ӧ
+   * @param off
+   *          ʼλ
+   * @param len
+   *          
+   */
+  public static SqsStatus parse(byte[] b, int off, int len) {
+    if (len < PREFIX_LENGTH || b[off] != 'H' || b[off + 7] != '_') { //"HTTPSQS_"ͷ,Ƚ
+      return OK;
+    }
+
+    for (SqsStatus status : VALUES) {
+      byte[] s = status.bytes;
+      if (s == null || (status == ERROR ? len < s.length : len != s.length)) {
+        continue;
+      }
+      int i = 0;
+      while (i < s.length && b[off + i] == s[i]) {
+        i++;
+      }
+      if (i == s.length) {
+        return status;
+      }
+    }
+    return OK;
+  }
+
+  /**
+   * жַĽ
+   */
+  public static SqsStatus parse(String msg) {
+    if (msg == null || !msg.startsWith("HTTPSQS_")) {
+      return OK;
+    }
+    for (SqsStatus status : VALUES) {
+      if (status.text != null && (status == ERROR ? msg.startsWith(status.text) : msg.equals(status.text))) {
+        return status;
+      }
+    }
+    return OK;
+  }
+
+}
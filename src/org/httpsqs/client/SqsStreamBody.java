@@ -0,0 +1,103 @@
+package org.httpsqs.client;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+
+/**
+ * ߶߱߷͵(HTTP chunked). ÿ̶ֻСһ,һchunk,ռõڴϢС޹.
+ * FileChannelֻһ;뾭Java,FileChannelҲtransferTo
+ */
+abstract class SqsStreamBody {
+  static final int CHUNK_SIZE = 8192; //ÿζֽ
+
+  private static final byte[] CRLF = { '\r', '\n' };
+  private static final byte[] LAST_CHUNK = { '0', '\r', '\n', '\r', '\n' };
+  private static final byte[] HEX = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+  private final long length; //Ҫ͵ֽ,С0ʾ
+
+  SqsStreamBody(long length) {
+    this.length = length;
+  }
+
+  /**
+   * ضһֽ
+   *
+   * @return ֽ,ʱ-1
+   */
+  abstract int read(byte[] b, int off, int len) throws IOException;
+
+  /**
+   * @param length
+   *          Ҫ͵ֽ,С0ʾ
+   */
+  static SqsStreamBody of(final InputStream in, long length) {
+    return new SqsStreamBody(length) {
+      int read(byte[] b, int off, int len) throws IOException {
+        return in.read(b, off, len);
+      }
+    };
+  }
+
+  /**
+   * FileChannelӵǰλÿʼȡ,λǰlengthֽ
+   *
+   * @param length
+   *          Ҫ͵ֽ,С0ʾͨ
+   * @throws IllegalArgumentException
+   *           ģʽͨ,read()ܷ0
+   */
+  static SqsStreamBody of(final ReadableByteChannel in, long length) {
+    if (in instanceof SelectableChannel && !((SelectableChannel) in).isBlocking()) {
+      throw new IllegalArgumentException("Non-blocking channel is not supported");
+    }
+    return new SqsStreamBody(length) {
+      int read(byte[] b, int off, int len) throws IOException {
+        return in.read(ByteBuffer.wrap(b, off, len));
+      }
+    };
+  }
+
+  /**
+   * ѱݰchunkдout,Ŀchunk
+   */
+  void writeTo(OutputStream out) throws IOException {
+    byte[] raw = new byte[CHUNK_SIZE];
+    byte[] encoded = new byte[CHUNK_SIZE * 3];
+    byte[] chunkHead = new byte[8];
+    long remain = length < 0 ? Long.MAX_VALUE : length;
+    while (remain > 0) {
+      int n = read(raw, 0, (int) Math.min(raw.length, remain));
+      if (n < 0) {
+        if (length >= 0) {
+          throw new EOFException("Unexpected end of stream: " + (length - remain) + " of " + length + " bytes");
+        }
+        break;
+      }
+      if (n == 0) { //ͨlen0ʱ᷵0
+        throw new IOException("Stream returned no data");
+      }
+      remain -= n;
+
+      int m = HttpsqsClient.percentEncode(raw, 0, n, encoded, 0);
+      int h = chunkHead.length - 2; //chunkȵ16,CRLF
+      chunkHead[h] = '\r';
+      chunkHead[h + 1] = '\n';
+      int v = m;
+      do {
+        chunkHead[--h] = HEX[v & 0x0F];
+        v >>>= 4;
+      } while (v != 0);
+      out.write(chunkHead, h, chunkHead.length - h);
+      out.write(encoded, 0, m);
+      out.write(CRLF);
+    }
+    out.write(LAST_CHUNK);
+  }
+
+}
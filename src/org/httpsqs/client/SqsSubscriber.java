@@ -0,0 +1,26 @@
+package org.httpsqs.client;
+
+/**
+ * ݵĽ,Reactive StreamsSubscriber(java.util.concurrent.Flow.Subscriber)Լͬ. ͬһĵĸصᲢ
+ */
+public interface SqsSubscriber<T> {
+  /**
+   * Ŀʼ,subscription.request(n)֮ǰյ
+   */
+  void onSubscribe(SqsSubscription subscription);
+
+  /**
+   * յһ,request(n)
+   */
+  void onNext(T item);
+
+  /**
+   * ,֮󲻻лص
+   */
+  void onError(Throwable cause);
+
+  /**
+   * ,֮󲻻лص
+   */
+  void onComplete();
+}
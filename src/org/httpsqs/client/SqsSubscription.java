@@ -0,0 +1,16 @@
+package org.httpsqs.client;
+
+/**
+ * һ,Reactive StreamsSubscription(java.util.concurrent.Flow.Subscription)Լͬ
+ */
+public interface SqsSubscription {
+  /**
+   * nݵ,onNext(). nСڵ0ʱIllegalArgumentExceptiononError()
+   */
+  void request(long n);
+
+  /**
+   * ȡ. ܻ֮յѾڴе
+   */
+  void cancel();
+}
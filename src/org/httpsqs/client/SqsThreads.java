@@ -0,0 +1,60 @@
+package org.httpsqs.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ִ߳. Java 6İ汾,ֻƽ̨߳;汾JARJava 21ϵлʹ
+ * META-INF/versions/21µͬ,virtualΪtrueʱ߳
+ */
+final class SqsThreads {
+
+  private SqsThreads() {
+  }
+
+  /**
+   * @return ǰлǷ֧߳
+   */
+  static boolean isVirtualSupported() {
+    return false;
+  }
+
+  /**
+   * @return ǰ߳Ƿ߳
+   */
+  static boolean isVirtual() {
+    return false;
+  }
+
+  /**
+   * һδػ߳
+   */
+  static Thread newThread(Runnable r, String name, boolean virtual) {
+    Thread t = new Thread(r, name);
+    t.setDaemon(true);
+    return t;
+  }
+
+  /**
+   * @return ߳Ϊprefixŵ̹߳
+   */
+  static ThreadFactory factory(final String prefix, final boolean virtual) {
+    return new ThreadFactory() {
+      private final AtomicInteger seq = new AtomicInteger();
+
+      public Thread newThread(Runnable r) {
+        return SqsThreads.newThread(r, prefix + seq.incrementAndGet(), virtual);
+      }
+    };
+  }
+
+  /**
+   * ִ̳߳. ʹ߳ʱÿһ߳,;threads̵߳Ĺ̶̳߳
+   */
+  static ExecutorService newExecutor(String prefix, int threads, boolean virtual) {
+    return Executors.newFixedThreadPool(threads, factory(prefix, virtual));
+  }
+
+}
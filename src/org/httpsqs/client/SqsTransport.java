@@ -0,0 +1,64 @@
+package org.httpsqs.client;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ѱõHTTP͵Sqs4JȡӦĴ
+ */
+interface SqsTransport {
+  /**
+   * ȴӦ
+   *
+   * @param head
+   *          Լͷ
+   * @param body
+   *          ,ûʱΪnull
+   */
+  SqsResponse execute(byte[] head, byte[] body) throws IOException;
+
+  /**
+   * ȴӦ,ͷֻȡheadǰheadLengthֽ. غheadԱ÷
+   */
+  SqsResponse execute(byte[] head, int headLength, byte[] body) throws IOException;
+
+  /**
+   * ʹȡݲȴӦ. ض,ʧʱ
+   *
+   * @param head
+   *          Լͷ
+   * @param body
+   *          ߶߱߷͵
+   */
+  SqsResponse execute(byte[] head, SqsStreamBody body) throws IOException;
+
+  /**
+   * ,ӦͨSqsFuture. Ĵڵǰִ߳ŷ
+   */
+  SqsFuture<SqsResponse> executeAsync(byte[] head, byte[] body);
+
+  /**
+   * ͬһһ(HTTP pipelining),˳ȡӦ. Ĵڵǰִ߳ŷ
+   *
+   * @param heads
+   *          ÿԼͷ
+   * @param bodies
+   *          ÿ,ȫûʱΪnull
+   * @param depth
+   *          ͬʱ;(ѷδյӦ)
+   * @return һһӦӦ
+   */
+  List<SqsFuture<SqsResponse>> executePipelined(List<byte[]> heads, List<byte[]> bodies, int depth);
+
+  /**
+   * @return executeAsyncǷ񲻻߳
+   */
+  boolean isNonBlocking();
+
+  /**
+   * @return ,̽;ͳʱ-1
+   */
+  int getNumIdle();
+
+  void close();
+}
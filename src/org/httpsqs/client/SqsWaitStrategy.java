@@ -0,0 +1,51 @@
+package org.httpsqs.client;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HttpsqsRingConsumer߳ڻλûпòλûϢʱĵȴʽ
+ */
+public enum SqsWaitStrategy {
+  /** һֱ,ӳ,һֱռһCPU */
+  BUSY_SPIN {
+    int idle(int counter) {
+      return counter;
+    }
+  },
+  /** һThread.yield(),CPUø߳ */
+  YIELDING {
+    int idle(int counter) {
+      if (counter < SPIN_TRIES) {
+        return counter + 1;
+      }
+      Thread.yield();
+      return counter;
+    }
+  },
+  /** ,yield֮ÿparkһСʱ,ʱռCPU */
+  PARKING {
+    int idle(int counter) {
+      if (counter < SPIN_TRIES) {
+        return counter + 1;
+      }
+      if (counter < SPIN_TRIES * 2) {
+        Thread.yield();
+        return counter + 1;
+      }
+      LockSupport.parkNanos(PARK_NANOS);
+      return counter;
+    }
+  };
+
+  private static final int SPIN_TRIES = 100;
+  private static final long PARK_NANOS = 50 * 1000;
+
+  /**
+   * ȴһ
+   *
+   * @param counter
+   *          ѾȴĴ,ÿֿʼʱΪ0
+   * @return һεʱcounter
+   */
+  abstract int idle(int counter);
+}
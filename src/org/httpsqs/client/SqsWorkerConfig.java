@@ -0,0 +1,107 @@
+package org.httpsqs.client;
+
+import java.util.concurrent.Executor;
+
+/**
+ * HttpsqsWorkerPool߳ѵ
+ */
+public class SqsWorkerConfig {
+  private int fetchThreads = 1; //е߳
+  private int workerThreads = 8; //ûָexecutorʱ,ڲ̳߳ص߳
+  private int maxInFlight = 64; //ѾлûдϢ
+  private Executor executor; //ִMessageHandler̳߳,Ϊnullʱʹڲ̳߳
+  private SqsBackoff backoff; //Ϊʱ˱ܲ,ΪnullʱʹĬֵ
+  private KeyExtractor keyExtractor; //ʱ,Ϊnullʱ
+  private int lanes = Runtime.getRuntime().availableProcessors(); //ʱĵ߳ͨ
+
+  public SqsWorkerConfig() {
+  }
+
+  /**
+   * @param fetchThreads
+   *          е߳
+   * @param workerThreads
+   *          ڲ̳߳ص߳
+   */
+  public SqsWorkerConfig(int fetchThreads, int workerThreads) {
+    this.fetchThreads = fetchThreads;
+    this.workerThreads = workerThreads;
+  }
+
+  public int getFetchThreads() {
+    return fetchThreads;
+  }
+
+  /**
+   * ÿ߳һgetExѭ,һ̵߳ʱʱ
+   */
+  public void setFetchThreads(int fetchThreads) {
+    this.fetchThreads = fetchThreads;
+  }
+
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public void setWorkerThreads(int workerThreads) {
+    this.workerThreads = workerThreads;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * ﵽmaxInFlightʱ߳ͣ,ٶȸʱϢȡڴ
+   */
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Executor,繲̳߳,ForkJoinPool,°汾JDKÿһ̵߳Executor. رHttpsqsWorkerPoolʱر
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  public SqsBackoff getBackoff() {
+    return backoff;
+  }
+
+  public void setBackoff(SqsBackoff backoff) {
+    this.backoff = backoff;
+  }
+
+  public KeyExtractor getKeyExtractor() {
+    return keyExtractor;
+  }
+
+  /**
+   * ú󰴼: hashֵϢĸ߳ͨ,ͬһϢе˳,ͬͨ.
+   * ʱֻһ߳ˮ߳,fetchThreads,workerThreadsexecutor
+   */
+  public void setKeyExtractor(KeyExtractor keyExtractor) {
+    this.keyExtractor = keyExtractor;
+  }
+
+  public int getLanes() {
+    return lanes;
+  }
+
+  public void setLanes(int lanes) {
+    this.lanes = lanes;
+  }
+
+  @Override
+  public String toString() {
+    return "SqsWorkerConfig [fetchThreads=" + fetchThreads + ", workerThreads=" + workerThreads + ", maxInFlight="
+        + maxInFlight + ", executor=" + executor + ", backoff=" + backoff + ", keyExtractor=" + keyExtractor + ", lanes="
+        + lanes + "]";
+  }
+
+}
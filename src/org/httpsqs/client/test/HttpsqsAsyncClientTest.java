@@ -0,0 +1,157 @@
+package org.httpsqs.client.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.httpsqs.client.HttpsqsAsyncClient;
+import org.httpsqs.client.HttpsqsClient;
+import org.httpsqs.client.SqsFuture;
+import org.httpsqs.client.SqsFutureListener;
+import org.httpsqs.client.SqsMsg;
+import org.httpsqs.client.SqsPoolConfig;
+
+/**
+ * HttpsqsAsyncClient
+ */
+public class HttpsqsAsyncClientTest extends TestCase {
+  String queue_name = "test_async_queue";
+  HttpsqsClient client = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000);
+  HttpsqsAsyncClient instance = new HttpsqsAsyncClient(client, 4);
+
+  public HttpsqsAsyncClientTest(String testName) {
+    super(testName);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    instance.close();
+    client.close();
+    super.tearDown();
+  }
+
+  /**
+   * Test of putExAsync method, of class HttpsqsAsyncClient.
+   */
+  public void testPutExAsync() throws Exception {
+    System.out.println("putExAsync");
+    String data = "test()Httpsqs:";
+    List<SqsFuture<SqsMsg>> futures = new ArrayList<SqsFuture<SqsMsg>>();
+    for (int i = 1; i <= 100; i++) {
+      futures.add(instance.putExAsync(queue_name, data + i, null));
+    }
+    for (SqsFuture<SqsMsg> future : futures) {
+      SqsMsg result = future.get(10, TimeUnit.SECONDS);
+      assertEquals("HTTPSQS_PUT_OK", result.msg);
+      assertTrue(result.pos > 0);
+    }
+  }
+
+  /**
+   * Test of putExAsync method over NIO transport, of class HttpsqsAsyncClient.
+   */
+  public void testPutExAsyncNio() throws Exception {
+    System.out.println("putExAsyncNio");
+    SqsPoolConfig poolConfig = new SqsPoolConfig(0, 4);
+    poolConfig.setNio(true);
+    HttpsqsClient nioClient = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000, poolConfig);
+    HttpsqsAsyncClient nioInstance = new HttpsqsAsyncClient(nioClient, 1);
+    try {
+      String data = "test()Httpsqs:";
+      List<SqsFuture<SqsMsg>> futures = new ArrayList<SqsFuture<SqsMsg>>();
+      for (int i = 1; i <= 1000; i++) {
+        futures.add(nioInstance.putExAsync(queue_name, data + i, null));
+      }
+      for (SqsFuture<SqsMsg> future : futures) {
+        SqsMsg result = future.get(10, TimeUnit.SECONDS);
+        assertEquals("HTTPSQS_PUT_OK", result.msg);
+        assertTrue(result.pos > 0);
+      }
+    } finally {
+      nioInstance.close();
+      nioClient.close();
+    }
+  }
+
+  /**
+   * Ĵִ̳߳,NIO㲻Ҫ
+   */
+  public void testNullExecutor() throws Exception {
+    System.out.println("nullExecutor");
+    try {
+      new HttpsqsAsyncClient(client, (ExecutorService) null);
+      fail("null executor accepted for a blocking client");
+    } catch (IllegalArgumentException e) {
+    }
+
+    SqsPoolConfig poolConfig = new SqsPoolConfig(0, 4);
+    poolConfig.setNio(true);
+    HttpsqsClient nioClient = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000, poolConfig);
+    HttpsqsAsyncClient nioInstance = new HttpsqsAsyncClient(nioClient, (ExecutorService) null);
+    try {
+      assertEquals("HTTPSQS_PUT_OK", nioInstance.putExAsync(queue_name, "test", null).get(10, TimeUnit.SECONDS).msg);
+    } finally {
+      nioInstance.close();
+      nioClient.close();
+    }
+  }
+
+  /**
+   * Test of putExAsync method with virtual threads, of class HttpsqsAsyncClient.
+   * Java 21µлûж汾JARʱʹƽ̨߳,ͬ
+   */
+  public void testPutExAsyncVirtualThreads() throws Exception {
+    System.out.println("putExAsyncVirtualThreads");
+    SqsPoolConfig poolConfig = new SqsPoolConfig(0, 4);
+    poolConfig.setVirtualThreads(true);
+    HttpsqsClient vtClient = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000, poolConfig);
+    HttpsqsAsyncClient vtInstance = new HttpsqsAsyncClient(vtClient, 1);
+    try {
+      String data = "test()Httpsqs:";
+      List<SqsFuture<SqsMsg>> futures = new ArrayList<SqsFuture<SqsMsg>>();
+      for (int i = 1; i <= 1000; i++) {
+        futures.add(vtInstance.putExAsync(queue_name, data + i, null));
+      }
+      for (SqsFuture<SqsMsg> future : futures) {
+        SqsMsg result = future.get(10, TimeUnit.SECONDS);
+        assertEquals("HTTPSQS_PUT_OK", result.msg);
+        assertTrue(result.pos > 0);
+      }
+    } finally {
+      vtInstance.close();
+      vtClient.close();
+    }
+  }
+
+  /**
+   * Test of getExAsync method, of class HttpsqsAsyncClient.
+   */
+  public void testGetExAsync() throws Exception {
+    System.out.println("getExAsync");
+    assertEquals("HTTPSQS_PUT_OK", client.put(queue_name, "test()Httpsqs", null));
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    SqsFuture<SqsMsg> future = instance.getExAsync(queue_name, null).addListener(new SqsFutureListener<SqsMsg>() {
+      public void operationComplete(SqsFuture<SqsMsg> future) {
+        latch.countDown();
+      }
+    });
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertTrue(future.isSuccess());
+    System.out.println(future.getNow());
+    assertTrue(future.getNow().pos > 0);
+  }
+
+  /**
+   * Test of statusJsonAsync method, of class HttpsqsAsyncClient.
+   */
+  public void testStatusJsonAsync() throws Exception {
+    System.out.println("statusJsonAsync");
+    String result = instance.statusJsonAsync(queue_name).get();
+    System.out.println(result);
+    assertTrue(!result.startsWith(HttpsqsClient.HTTPSQS_ERROR_PREFIX));
+  }
+}
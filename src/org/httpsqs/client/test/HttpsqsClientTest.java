@@ -1,8 +1,77 @@
 package org.httpsqs.client.test;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 import junit.framework.TestCase;
+import org.httpsqs.client.BalancedHttpsqsClient;
+import org.httpsqs.client.BatchHandler;
+import org.httpsqs.client.HttpsqsBatchConsumer;
 import org.httpsqs.client.HttpsqsClient;
+import org.httpsqs.client.HttpsqsConsumer;
+import org.httpsqs.client.HttpsqsFanInConsumer;
+import org.httpsqs.client.HttpsqsProducer;
+import org.httpsqs.client.HttpsqsPublisher;
+import org.httpsqs.client.HttpsqsPutSubscriber;
+import org.httpsqs.client.HttpsqsRingConsumer;
+import org.httpsqs.client.HttpsqsWorkerPool;
+import org.httpsqs.client.KeyExtractor;
+import org.httpsqs.client.MessageHandler;
+import org.httpsqs.client.QueueHandle;
+import org.httpsqs.client.QueueMessageHandler;
+import org.httpsqs.client.ShardedHttpsqsClient;
+import org.httpsqs.client.SlotHandler;
+import org.httpsqs.client.SqsBackoff;
+import org.httpsqs.client.SqsBalancerConfig;
+import org.httpsqs.client.SqsBatchConfig;
+import org.httpsqs.client.SqsConsumerConfig;
+import org.httpsqs.client.SqsCursor;
+import org.httpsqs.client.SqsFanInConfig;
+import org.httpsqs.client.SqsFuture;
 import org.httpsqs.client.SqsMsg;
+import org.httpsqs.client.SqsNode;
+import org.httpsqs.client.SqsPartitionedQueue;
+import org.httpsqs.client.SqsPoller;
+import org.httpsqs.client.SqsPoolConfig;
+import org.httpsqs.client.SqsProducerConfig;
+import org.httpsqs.client.SqsRawMsg;
+import org.httpsqs.client.SqsRingConfig;
+import org.httpsqs.client.SqsSlot;
+import org.httpsqs.client.SqsStatus;
+import org.httpsqs.client.SqsSubscriber;
+import org.httpsqs.client.SqsSubscription;
+import org.httpsqs.client.SqsWaitStrategy;
+import org.httpsqs.client.SqsWorkerConfig;
 
 /**
  * HttpSqsClient
@@ -25,9 +94,57 @@ public class HttpsqsClientTest extends TestCase {
 
   @Override
   protected void tearDown() throws Exception {
+    instance.close();
     super.tearDown();
   }
 
+  /**
+   * ն
+   */
+  private void clear(String queue) {
+    clear(instance, queue);
+  }
+
+  private static void clear(HttpsqsClient client, String queue) {
+    while (client.getEx(queue, null).pos > 0) {
+      //ն
+    }
+  }
+
+  private static void clear(QueueHandle queue) {
+    while (queue.getEx().pos > 0) {
+      //ն
+    }
+  }
+
+  /**
+   * @return nϢ"test()Httpsqs:1".."test()Httpsqs:n"
+   */
+  private static List<String> datas(int n) {
+    List<String> datas = new ArrayList<String>(n);
+    for (int i = 1; i <= n; i++) {
+      datas.add("test()Httpsqs:" + i);
+    }
+    return datas;
+  }
+
+  /**
+   * ȵ̴̨߳nϢ,10
+   */
+  private static void awaitCount(Collection<?> received, int n) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10 * 1000;
+    while (received.size() < n && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  private static void awaitCount(AtomicInteger received, int n) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10 * 1000;
+    while (received.get() < n && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
 
   public void testBenchMarkPut() {
     long currentTimeMillis = System.currentTimeMillis();
@@ -40,6 +157,1027 @@ public class HttpsqsClientTest extends TestCase {
     System.out.println("testBenchMarkPut(),10000ʱ" + (System.currentTimeMillis() - currentTimeMillis) / 1000.00 + "");
   }
 
+  /**
+   * Test of connection pool, of class HttpsqsClient.
+   */
+  public void testPool() throws Exception {
+    System.out.println("pool");
+    SqsPoolConfig poolConfig = new SqsPoolConfig(1, 2);
+    poolConfig.setIdleTimeoutMillis(1000);
+    poolConfig.setEvictionIntervalMillis(200);
+    final HttpsqsClient client = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000, poolConfig);
+    try {
+      String data = "test()Httpsqs:";
+      for (int i = 1; i <= 100; i++) {
+        assertEquals("HTTPSQS_PUT_OK", client.put(queue_name, data + i, null));
+      }
+
+      //һʽռʱ,
+      final CountDownLatch reading = new CountDownLatch(1);
+      final CountDownLatch hold = new CountDownLatch(1);
+      final InputStream body = new ByteArrayInputStream("held".getBytes("GBK")) {
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+          reading.countDown();
+          try {
+            hold.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return super.read(b, off, len);
+        }
+      };
+      final SqsMsg[] held = new SqsMsg[1];
+      Thread t = new Thread() {
+        @Override
+        public void run() {
+          held[0] = client.putStream(queue_name, body, -1, null);
+        }
+      };
+      t.start();
+      assertTrue(reading.await(10, TimeUnit.SECONDS));
+      assertEquals("HTTPSQS_PUT_OK", client.put(queue_name, data, null));
+      hold.countDown();
+      t.join();
+      assertEquals(SqsStatus.PUT_OK, held[0].status);
+      assertEquals(2, client.getNumIdle());
+
+      //̽ⲻˢ¿ʱ,idleTimeoutյminIdle
+      long deadline = System.currentTimeMillis() + 5 * 1000;
+      while (client.getNumIdle() > 1 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, client.getNumIdle());
+      assertEquals("HTTPSQS_PUT_OK", client.put(queue_name, data, null));
+    } finally {
+      client.close();
+    }
+  }
+
+  /**
+   * Test of NIO transport, of class HttpsqsClient.
+   */
+  public void testNioTransport() {
+    System.out.println("nio");
+    SqsPoolConfig poolConfig = new SqsPoolConfig(0, 4);
+    poolConfig.setNio(true);
+    HttpsqsClient client = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000, poolConfig);
+    try {
+      String data = "test()Httpsqs";
+      SqsMsg putResult = client.putEx(queue_name, data, null);
+      System.out.println(putResult);
+      assertEquals("HTTPSQS_PUT_OK", putResult.msg);
+      assertTrue(putResult.pos > 0);
+
+      String result = client.statusJson(queue_name);
+      System.out.println(result);
+      assertTrue(!result.startsWith(HttpsqsClient.HTTPSQS_ERROR_PREFIX));
+    } finally {
+      client.close();
+    }
+  }
+
+  /**
+   * NIOӦ: ״̬,ͷ,chunkedݺContent-Lengthݶɶζ. ñصļٷ,ҪSqs4J
+   */
+  public void testNioFragmentedResponse() throws Exception {
+    System.out.println("nioFragmentedResponse");
+    final ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+    final String text = new String("test()".getBytes("GBK"), "ISO-8859-1"); //ֽڲ,һ
+    Thread t = new Thread() {
+      @Override
+      public void run() {
+        try {
+          Socket s = server.accept();
+          try {
+            s.setTcpNoDelay(true);
+            InputStream in = s.getInputStream();
+            OutputStream out = s.getOutputStream();
+            readRequest(in);
+            writeSlowly(out, "HTTP/1.1 200 OK\r\nPo", "s: 7\r\nTransfer-Enc", "oding: chunked\r\n", "\r\na\r",
+                "\n" + text.substring(0, 6), text.substring(6) + "\r\n0\r\n", "\r\n");
+            readRequest(in);
+            writeSlowly(out, "HTTP/1.1 200 OK\r\nContent-Len", "gth: 15\r\n\r\nHTTPSQS_", "GET_END");
+            readRequest(in); //ȿͻ˹ر
+          } finally {
+            s.close();
+          }
+        } catch (Exception e) {
+          //ͻһĶԻʧ
+        }
+      }
+    };
+    t.start();
+
+    SqsPoolConfig poolConfig = new SqsPoolConfig(0, 1);
+    poolConfig.setNio(true);
+    HttpsqsClient client = new HttpsqsClient("127.0.0.1", server.getLocalPort(), "GBK", 5000, 5000, poolConfig);
+    try {
+      SqsMsg msg = client.getEx(queue_name, null);
+      assertEquals("test()", msg.msg);
+      assertEquals(7, msg.pos);
+      assertEquals(SqsStatus.GET_END, client.getEx(queue_name, null).status); //ͬһϵһӦ
+    } finally {
+      client.close();
+      t.join(5000);
+      server.close();
+    }
+  }
+
+  /**
+   * ͷ
+   */
+  private static void readRequest(InputStream in) throws IOException {
+    int matched = 0;
+    while (matched < 4) {
+      int c = in.read();
+      if (c < 0) {
+        throw new EOFException();
+      }
+      matched = c == "\r\n\r\n".charAt(matched) ? matched + 1 : (c == '\r' ? 1 : 0);
+    }
+  }
+
+  /**
+   * ֶд,ÿ֮ͣһ,öԷֶζ
+   */
+  private static void writeSlowly(OutputStream out, String... pieces) throws Exception {
+    for (String piece : pieces) {
+      out.write(piece.getBytes("ISO-8859-1"));
+      out.flush();
+      Thread.sleep(20);
+    }
+  }
+
+  /**
+   * Test of putAll and getMany method, of class HttpsqsClient.
+   */
+  public void testPipelining() {
+    System.out.println("pipelining");
+    pipelining(instance);
+
+    SqsPoolConfig poolConfig = new SqsPoolConfig(0, 4);
+    poolConfig.setNio(true);
+    poolConfig.setPipelineDepth(4);
+    HttpsqsClient client = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000, poolConfig);
+    try {
+      pipelining(client);
+    } finally {
+      client.close();
+    }
+  }
+
+  private void pipelining(HttpsqsClient client) {
+    String queue = queue_name + "_pipelining";
+    clear(client, queue);
+
+    List<String> datas = datas(100);
+    List<SqsMsg> putResults = client.putAll(queue, datas, null);
+    assertEquals(datas.size(), putResults.size());
+    for (SqsMsg result : putResults) {
+      assertEquals("HTTPSQS_PUT_OK", result.msg);
+      assertTrue(result.pos > 0);
+    }
+
+    List<SqsMsg> getResults = client.getMany(queue, datas.size() + 1, null);
+    System.out.println(getResults.get(0));
+    assertEquals(datas.size() + 1, getResults.size());
+    for (int i = 0; i < datas.size(); i++) {
+      assertEquals(datas.get(i), getResults.get(i).msg);
+    }
+    assertEquals("HTTPSQS_GET_END", getResults.get(datas.size()).msg);
+  }
+
+  /**
+   * Test of queue method, of class HttpsqsClient.
+   */
+  public void testQueueHandle() throws Exception {
+    System.out.println("queue");
+    QueueHandle queue = instance.queue(queue_name + "_handle", null);
+    clear(queue);
+
+    String data = "test()Httpsqs";
+    SqsMsg putResult = queue.putEx(data);
+    System.out.println(putResult);
+    assertEquals("HTTPSQS_PUT_OK", putResult.msg);
+    assertEquals("HTTPSQS_PUT_OK", queue.put(data + 2));
+    assertEquals(data, queue.view(putResult.pos));
+
+    SqsMsg getResult = queue.getEx();
+    assertEquals(putResult.pos, getResult.pos);
+    assertEquals(data, getResult.msg);
+    assertEquals(data + 2, queue.get());
+    assertEquals("HTTPSQS_GET_END", queue.get());
+
+    String lines = "line1\r\nline2\n"; //ϢеĻԭ
+    assertEquals("HTTPSQS_PUT_OK", queue.put(lines));
+    assertEquals(lines, instance.get(queue.getName(), null));
+  }
+
+  /**
+   * Test of putBytes and getBytes method, of class HttpsqsClient.
+   */
+  public void testBytes() throws Exception {
+    System.out.println("bytes");
+    String queue = queue_name + "_bytes";
+    clear(queue);
+
+    byte[] data = new byte[512];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    SqsMsg result = instance.putBytes(queue, data, null);
+    System.out.println(result);
+    assertEquals("HTTPSQS_PUT_OK", result.msg);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+    buffer.put(data).flip();
+    assertEquals("HTTPSQS_PUT_OK", instance.putBytes(queue, buffer, null).msg);
+    assertEquals(data.length, buffer.remaining());
+
+    assertTrue(Arrays.equals(data, instance.getBytes(queue, null)));
+    assertTrue(Arrays.equals(data, instance.queue(queue, null).getBytes()));
+    assertEquals("HTTPSQS_GET_END", new String(instance.getBytes(queue, null), "GBK"));
+  }
+
+  /**
+   * Test of getRaw method, of class HttpsqsClient.
+   */
+  public void testGetRaw() throws Exception {
+    System.out.println("getRaw");
+    String queue = queue_name + "_raw";
+    clear(queue);
+
+    String data = "test()Httpsqs";
+    assertEquals("HTTPSQS_PUT_OK", instance.put(queue, data, null));
+    SqsRawMsg result = instance.getRaw(queue, null);
+    System.out.println(result);
+    assertTrue(result.pos > 0);
+    assertTrue(result.isOk());
+    assertTrue(Arrays.equals(data.getBytes("GBK"), result.getBytes()));
+    assertEquals(result.length(), result.asByteBuffer().remaining());
+    assertEquals(data, result.getMsg());
+
+    result = instance.getRaw(queue, null);
+    assertTrue(result.isGetEnd());
+    assertFalse(result.isOk());
+    assertFalse(result.isError());
+    assertEquals("HTTPSQS_GET_END", result.getMsg());
+  }
+
+  /**
+   * Test of SqsMsg.status, of class HttpsqsClient.
+   */
+  public void testResultStatus() throws Exception {
+    System.out.println("resultStatus");
+    String queue = queue_name + "_status";
+    clear(queue);
+
+    SqsMsg result = instance.putEx(queue, "HTTPSQS_GET_END", null);
+    assertEquals(SqsStatus.PUT_OK, result.status);
+    assertNull(result.cause);
+    result = instance.getEx(queue, null);
+    assertEquals(SqsStatus.OK, result.status); //Ϣǡ״ַ̬
+    result = instance.getEx(queue, null);
+    assertEquals(SqsStatus.GET_END, result.status);
+    assertEquals(SqsStatus.GET_END, instance.getRaw(queue, null).getStatus());
+
+    HttpsqsClient client = new HttpsqsClient("127.0.0.1", 1, "GBK", 1000, 1000);
+    try {
+      result = client.getEx(queue, null);
+      System.out.println(result);
+      assertEquals(SqsStatus.ERROR, result.status);
+      assertNotNull(result.cause);
+      assertTrue(result.msg.startsWith(HttpsqsClient.HTTPSQS_ERROR_PREFIX));
+    } finally {
+      client.close();
+    }
+
+    byte[] b = "xHTTPSQS_ERROR_NOFOUND".getBytes("GBK");
+    assertEquals(SqsStatus.ERROR_NOFOUND, SqsStatus.parse(b, 1, b.length - 1));
+    assertEquals(SqsStatus.ERROR, SqsStatus.parse(b, 1, 13));
+    assertEquals(SqsStatus.OK, SqsStatus.parse(b, 0, b.length));
+    assertEquals(SqsStatus.AUTH_FAILED, SqsStatus.parse("HTTPSQS_AUTH_FAILED"));
+  }
+
+  /**
+   * Test of putStream method, of class HttpsqsClient.
+   */
+  public void testPutStream() throws Exception {
+    System.out.println("putStream");
+    String queue = queue_name + "_stream";
+    clear(queue);
+
+    byte[] data = new byte[100 * 1024 + 1];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    SqsMsg result = instance.putStream(queue, new ByteArrayInputStream(data), data.length, null);
+    System.out.println(result);
+    assertEquals(SqsStatus.PUT_OK, result.status);
+    assertTrue(Arrays.equals(data, instance.getBytes(queue, null)));
+
+    File file = File.createTempFile("httpsqs", ".dat");
+    try {
+      FileOutputStream out = new FileOutputStream(file);
+      out.write(data);
+      out.close();
+      FileChannel channel = new FileInputStream(file).getChannel();
+      try {
+        assertEquals(SqsStatus.PUT_OK, instance.putStream(queue, channel, -1, null).status);
+        assertEquals(data.length, channel.position());
+      } finally {
+        channel.close();
+      }
+      assertTrue(Arrays.equals(data, instance.getBytes(queue, null)));
+
+      byte[] text = "skip:test(Httpsqs):tail".getBytes("GBK"); //ӵǰλÿʼ,ֻlengthֽ
+      out = new FileOutputStream(file);
+      out.write(text);
+      out.close();
+      channel = new FileInputStream(file).getChannel();
+      try {
+        channel.position(5);
+        assertEquals(SqsStatus.PUT_OK, instance.putStream(queue, channel, 13, null).status);
+        assertEquals(18, channel.position());
+      } finally {
+        channel.close();
+      }
+      assertEquals("test(Httpsqs)", instance.get(queue, null));
+
+      Pipe pipe = Pipe.open();
+      try {
+        pipe.source().configureBlocking(false);
+        instance.putStream(queue, pipe.source(), -1, null);
+        fail("non-blocking channel accepted");
+      } catch (IllegalArgumentException e) {
+        //ͨöѭת
+      } finally {
+        pipe.source().close();
+        pipe.sink().close();
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  /**
+   * Test of producer method, of class HttpsqsClient.
+   */
+  public void testProducer() throws Exception {
+    System.out.println("producer");
+    String queue = queue_name + "_producer";
+    clear(queue);
+
+    SqsProducerConfig config = new SqsProducerConfig(16, 20);
+    config.setBufferMemory(1024);
+    HttpsqsProducer producer = instance.producer(queue, null, config);
+    List<SqsFuture<SqsMsg>> futures = new ArrayList<SqsFuture<SqsMsg>>();
+    try {
+      for (int i = 1; i <= 100; i++) {
+        futures.add(producer.send("test()Httpsqs:" + i));
+      }
+      producer.flush();
+      assertEquals(0, producer.getBufferedBytes());
+      long lastPos = 0;
+      for (SqsFuture<SqsMsg> future : futures) {
+        assertTrue(future.isDone());
+        SqsMsg result = future.get();
+        assertEquals("HTTPSQS_PUT_OK", result.msg);
+        assertTrue(result.pos > lastPos); //ֻһ߳ʱ˳
+        lastPos = result.pos;
+      }
+
+      SqsMsg tooLarge = producer.send(new byte[2048]).get();
+      assertEquals(SqsStatus.ERROR, tooLarge.status);
+    } finally {
+      producer.close();
+    }
+    assertEquals(SqsStatus.ERROR, producer.send("closed").get().status);
+
+    for (int i = 1; i <= 100; i++) {
+      assertEquals("test()Httpsqs:" + i, instance.get(queue, null));
+    }
+    assertEquals("HTTPSQS_GET_END", instance.get(queue, null));
+  }
+
+  /**
+   * Test of consumer method, of class HttpsqsClient.
+   */
+  public void testConsumer() throws Exception {
+    System.out.println("consumer");
+    String queue = queue_name + "_consumer";
+    clear(queue);
+
+    HttpsqsConsumer consumer = instance.consumer(queue, null, new SqsConsumerConfig(1, 32));
+    try {
+      assertNull(consumer.poll(200, TimeUnit.MILLISECONDS));
+      for (int i = 1; i <= 200; i++) {
+        assertEquals("HTTPSQS_PUT_OK", instance.put(queue, "test()Httpsqs:" + i, null));
+      }
+      for (int i = 1; i <= 200; i++) {
+        SqsMsg msg = consumer.poll(5, TimeUnit.SECONDS);
+        assertNotNull(msg);
+        assertEquals("test()Httpsqs:" + i, msg.msg);
+      }
+      System.out.println("prefetch=" + consumer.getPrefetch());
+      assertTrue(consumer.getPrefetch() <= 32);
+      assertNull(consumer.poll());
+    } finally {
+      consumer.close();
+    }
+    assertNull(consumer.poll(1, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Test of poller method, of class HttpsqsClient.
+   */
+  public void testPoller() throws Exception {
+    System.out.println("poller");
+    String queue = queue_name + "_poller";
+    clear(queue);
+
+    SqsBackoff backoff = new SqsBackoff(5, 40, 2.0, 0.5);
+    SqsPoller poller = instance.poller(queue, null, backoff);
+    long start = System.currentTimeMillis();
+    SqsMsg msg = poller.poll(300, TimeUnit.MILLISECONDS);
+    assertEquals(SqsStatus.GET_END, msg.status);
+    assertTrue(System.currentTimeMillis() - start >= 300);
+    System.out.println(backoff);
+    assertTrue(backoff.getEmptyPolls() < 20); //˱ܵ40,
+    assertEquals(40, backoff.getCurrentMillis());
+    assertTrue(backoff.getIdleMillis() > 0);
+
+    assertEquals("HTTPSQS_PUT_OK", instance.put(queue, "test()Httpsqs", null));
+    msg = poller.take();
+    assertEquals("test()Httpsqs", msg.msg);
+    assertEquals(5, backoff.getCurrentMillis()); //ȡϢָ
+    assertTrue(backoff.getEmptyPollRatio() > 0 && backoff.getEmptyPollRatio() < 1);
+  }
+
+  /**
+   * Test of workerPool method, of class HttpsqsClient.
+   */
+  public void testWorkerPool() throws Exception {
+    System.out.println("workerPool");
+    String queue = queue_name + "_worker";
+    clear(queue);
+    List<String> datas = datas(200);
+    instance.putAll(queue, datas, null);
+
+    final Set<String> received = Collections.synchronizedSet(new HashSet<String>());
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    final AtomicInteger running = new AtomicInteger();
+    SqsWorkerConfig config = new SqsWorkerConfig(2, 4);
+    config.setMaxInFlight(8);
+    config.setBackoff(new SqsBackoff(5, 20, 2.0, 0.2));
+    HttpsqsWorkerPool pool = instance.workerPool(queue, null, new MessageHandler() {
+      public void onMessage(SqsMsg msg) throws Exception {
+        int n = running.incrementAndGet();
+        synchronized (maxInFlight) {
+          maxInFlight.set(Math.max(maxInFlight.get(), n));
+        }
+        Thread.sleep(1);
+        received.add(msg.msg);
+        running.decrementAndGet();
+        if (msg.msg.endsWith(":13")) {
+          throw new IllegalStateException(msg.msg);
+        }
+      }
+    }, config);
+
+    awaitCount(received, datas.size());
+    pool.close();
+    assertTrue(pool.isTerminated());
+    assertEquals(0, pool.getInFlight());
+    assertEquals(new HashSet<String>(datas), received);
+    assertEquals(datas.size() - 1, pool.getProcessed());
+    assertEquals(1, pool.getFailed());
+    assertTrue(maxInFlight.get() <= 4);
+    assertTrue(pool.getBackoff().getEmptyPolls() > 0);
+  }
+
+  /**
+   * Test of workerPool method with KeyExtractor, of class HttpsqsClient.
+   */
+  public void testWorkerPoolKeyed() throws Exception {
+    System.out.println("workerPoolKeyed");
+    String queue = queue_name + "_keyed";
+    clear(queue);
+    List<String> datas = new ArrayList<String>();
+    for (int i = 1; i <= 300; i++) {
+      datas.add("key" + (i % 7) + ":" + i);
+    }
+    instance.putAll(queue, datas, null);
+
+    final Map<String, Integer> last = new HashMap<String, Integer>();
+    final AtomicInteger received = new AtomicInteger();
+    final AtomicInteger outOfOrder = new AtomicInteger();
+    SqsWorkerConfig config = new SqsWorkerConfig();
+    config.setLanes(3);
+    config.setMaxInFlight(32);
+    config.setKeyExtractor(new KeyExtractor() {
+      public Object keyOf(SqsMsg msg) {
+        return msg.msg.substring(0, msg.msg.indexOf(':'));
+      }
+    });
+    HttpsqsWorkerPool pool = instance.workerPool(queue, null, new MessageHandler() {
+      public void onMessage(SqsMsg msg) throws Exception {
+        String key = msg.msg.substring(0, msg.msg.indexOf(':'));
+        int seq = Integer.parseInt(msg.msg.substring(msg.msg.indexOf(':') + 1));
+        synchronized (last) {
+          Integer prev = last.put(key, seq);
+          if (prev != null && prev > seq) {
+            outOfOrder.incrementAndGet();
+          }
+        }
+        received.incrementAndGet();
+      }
+    }, config);
+
+    awaitCount(received, datas.size());
+    pool.close();
+    assertEquals(datas.size(), received.get());
+    assertEquals(0, outOfOrder.get());
+    assertEquals(7, last.size());
+  }
+
+  /**
+   * Test of ringConsumer method, of class HttpsqsClient.
+   */
+  public void testRingConsumer() throws Exception {
+    System.out.println("ringConsumer");
+    String queue = queue_name + "_ring";
+    clear(queue);
+    List<String> datas = datas(500);
+    instance.putAll(queue, datas, null);
+
+    final Set<String> received = Collections.synchronizedSet(new HashSet<String>());
+    SqsRingConfig config = new SqsRingConfig(6, 3); //ȡ8λ,
+    config.setSlotCapacity(16); //ϢȲλʱ
+    config.setWaitStrategy(SqsWaitStrategy.YIELDING);
+    config.setBackoff(new SqsBackoff(5, 20, 2.0, 0.2));
+    HttpsqsRingConsumer consumer = instance.ringConsumer(queue, null, new SlotHandler() {
+      public void onSlot(SqsSlot slot) throws Exception {
+        received.add(slot.getMsg());
+      }
+    }, config);
+    assertEquals(8, consumer.getRingSize());
+
+    awaitCount(received, datas.size());
+    consumer.close();
+    assertTrue(consumer.awaitTermination(0, TimeUnit.SECONDS));
+    assertEquals(new HashSet<String>(datas), received);
+    assertEquals(datas.size(), consumer.getProcessed());
+  }
+
+  /**
+   * Test of batchConsumer method, of class HttpsqsClient.
+   */
+  public void testBatchConsumer() throws Exception {
+    System.out.println("batchConsumer");
+    String queue = queue_name + "_batch";
+    clear(queue);
+    List<String> datas = datas(95);
+    instance.putAll(queue, datas, null);
+
+    final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+    final List<Integer> sizes = Collections.synchronizedList(new ArrayList<Integer>());
+    SqsBatchConfig config = new SqsBatchConfig(20, 200);
+    config.setBackoff(new SqsBackoff(5, 20, 2.0, 0.2));
+    HttpsqsBatchConsumer consumer = instance.batchConsumer(queue, null, new BatchHandler() {
+      public void onBatch(List<SqsMsg> batch) throws Exception {
+        sizes.add(batch.size());
+        for (SqsMsg msg : batch) {
+          received.add(msg.msg);
+        }
+      }
+    }, config);
+
+    awaitCount(received, datas.size());
+    System.out.println(sizes);
+    assertEquals(datas, received); //е˳
+    assertEquals(Arrays.asList(20, 20, 20, 20, 15), sizes); //һĵȵmaxWaitMillis
+
+    assertEquals("HTTPSQS_PUT_OK", instance.put(queue, "test()Httpsqs:x", null));
+    Thread.sleep(150);
+    consumer.close(); //ѾеϢΪһ
+    assertEquals(datas.size() + 1, consumer.getProcessed());
+    assertEquals(6, consumer.getBatches());
+  }
+
+  /**
+   * Test of publisher and putSubscriber method, of class HttpsqsClient.
+   */
+  public void testPublisher() throws Exception {
+    System.out.println("publisher");
+    String queue = queue_name + "_publisher";
+    clear(queue);
+
+    //ΰputSubscriber,;󲻳4
+    final AtomicLong demand = new AtomicLong();
+    HttpsqsPutSubscriber sink = instance.putSubscriber(queue, null, 4);
+    sink.onSubscribe(new SqsSubscription() {
+      public void request(long n) {
+        demand.addAndGet(n);
+      }
+
+      public void cancel() {
+      }
+    });
+    assertEquals(4, demand.get());
+    for (int i = 1; i <= 30; i++) {
+      while (demand.get() == 0) {
+        Thread.sleep(1);
+      }
+      demand.decrementAndGet();
+      sink.onNext("test()Httpsqs:" + i);
+      assertTrue(sink.getInFlight() <= 4);
+    }
+    sink.onComplete();
+    assertEquals(Long.valueOf(30), sink.completion().get(10, TimeUnit.SECONDS));
+    assertEquals(0, sink.getFailed());
+
+    //ֻrequest(n)
+    final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+    final AtomicReference<SqsSubscription> subscription = new AtomicReference<SqsSubscription>();
+    final SqsFuture<Boolean> completed = new SqsFuture<Boolean>();
+    HttpsqsPublisher publisher = instance.publisher(queue, null, null);
+    publisher.subscribe(new SqsSubscriber<SqsMsg>() {
+      public void onSubscribe(SqsSubscription s) {
+        subscription.set(s);
+        s.request(10);
+      }
+
+      public void onNext(SqsMsg item) {
+        received.add(item.msg);
+      }
+
+      public void onError(Throwable cause) {
+        completed.setFailure(cause);
+      }
+
+      public void onComplete() {
+        completed.setResult(Boolean.TRUE);
+      }
+    });
+    awaitCount(received, 10);
+    Thread.sleep(100);
+    assertEquals(10, received.size());
+
+    subscription.get().request(Long.MAX_VALUE);
+    assertEquals(Boolean.TRUE, completed.get(10, TimeUnit.SECONDS)); //Ϊʱ
+    assertEquals(30, received.size());
+    for (int i = 1; i <= 30; i++) {
+      assertTrue(received.contains("test()Httpsqs:" + i));
+    }
+    publisher.close();
+  }
+
+  /**
+   * Test of stream method, of class HttpsqsClient.
+   */
+  public void testStream() throws Exception {
+    System.out.println("stream");
+    String queue = queue_name + "_stream";
+    clear(queue);
+    List<String> datas = datas(200);
+    instance.putAll(queue, datas.subList(0, 20), null);
+
+    SqsCursor cursor = instance.stream(queue, null);
+    List<String> received = new ArrayList<String>();
+    while (cursor.hasNext()) {
+      received.add(cursor.next().msg);
+    }
+    assertEquals(datas.subList(0, 20), received);
+    assertTrue(cursor.isExhausted());
+    assertNull(cursor.trySplit());
+    assertNull(cursor.getLastError());
+
+    instance.putAll(queue, datas, null);
+    final Set<String> drained = Collections.synchronizedSet(new HashSet<String>());
+    long count = instance.stream(queue, null).drain(new MessageHandler() {
+      public void onMessage(SqsMsg msg) throws Exception {
+        assertTrue(drained.add(msg.msg));
+      }
+    }, 4);
+    assertEquals(datas.size(), count);
+    assertEquals(new HashSet<String>(datas), drained);
+  }
+
+  /**
+   * Test of ShardedHttpsqsClient.
+   */
+  public void testSharded() throws Exception {
+    System.out.println("sharded");
+    List<HttpsqsClient> nodes = new ArrayList<HttpsqsClient>();
+    nodes.add(new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000));
+    nodes.add(new HttpsqsClient("localhost", 1218, "GBK", 60 * 1000, 60 * 1000));
+    ShardedHttpsqsClient sharded = new ShardedHttpsqsClient(nodes);
+    try {
+      Map<String, HttpsqsClient> before = new HashMap<String, HttpsqsClient>();
+      Map<HttpsqsClient, Integer> counts = new HashMap<HttpsqsClient, Integer>();
+      for (int i = 0; i < 1000; i++) {
+        HttpsqsClient node = sharded.nodeFor(queue_name + i);
+        before.put(queue_name + i, node);
+        counts.put(node, counts.containsKey(node) ? counts.get(node) + 1 : 1);
+      }
+      System.out.println(counts.values());
+      assertEquals(2, counts.size());
+      for (int count : counts.values()) {
+        assertTrue(count > 300);
+      }
+
+      //ӽڵʱֻл½ڵĶиıӳ,ɾָ
+      HttpsqsClient added = new HttpsqsClient("127.0.0.1", 1219, "GBK", 60 * 1000, 60 * 1000);
+      assertTrue(sharded.addNode(added));
+      assertFalse(sharded.addNode(added));
+      int moved = 0;
+      for (Map.Entry<String, HttpsqsClient> entry : before.entrySet()) {
+        HttpsqsClient node = sharded.nodeFor(entry.getKey());
+        if (node != entry.getValue()) {
+          assertSame(added, node);
+          moved++;
+        }
+      }
+      System.out.println("moved: " + moved);
+      assertTrue(moved > 200 && moved < 450);
+      assertSame(added, sharded.removeNode("127.0.0.1:1219"));
+      added.close();
+      for (Map.Entry<String, HttpsqsClient> entry : before.entrySet()) {
+        assertSame(entry.getValue(), sharded.nodeFor(entry.getKey()));
+      }
+
+      String queue = queue_name + "_sharded";
+      clear(sharded.queue(queue, null));
+      SqsMsg putResult = sharded.putEx(queue, "test()Httpsqs", null);
+      assertEquals("HTTPSQS_PUT_OK", putResult.msg);
+      assertEquals("test()Httpsqs", sharded.get(queue, null));
+      assertEquals("HTTPSQS_GET_END", sharded.getEx(queue, null).msg);
+    } finally {
+      sharded.close();
+    }
+  }
+
+  /**
+   * Test of partitioned method, of class HttpsqsClient.
+   */
+  public void testPartitioned() throws Exception {
+    System.out.println("partitioned");
+    SqsPartitionedQueue queue = instance.partitioned(queue_name + "_partitioned", 4, null);
+    for (int i = 0; i < queue.getPartitions(); i++) {
+      clear(queue.partition(i));
+    }
+
+    for (int i = 1; i <= 8; i++) {
+      assertEquals("HTTPSQS_PUT_OK", queue.putEx("test()Httpsqs:" + i).msg);
+    }
+    for (int i = 0; i < queue.getPartitions(); i++) { //,ÿ2
+      assertEquals("test()Httpsqs:" + (i + 1), queue.getEx(i).msg);
+      assertEquals("test()Httpsqs:" + (i + 5), queue.getEx(i).msg);
+      assertEquals("HTTPSQS_GET_END", queue.getEx(i).msg);
+    }
+
+    String key = "user42";
+    for (int i = 1; i <= 5; i++) {
+      queue.putEx(key, "test()Httpsqs:" + i);
+    }
+    SqsPartitionedQueue consumer0 = queue.assign(0, 2);
+    SqsPartitionedQueue consumer1 = queue.assign(1, 2);
+    assertTrue(Arrays.equals(new int[] { 0, 2 }, consumer0.getAssigned()));
+    assertTrue(Arrays.equals(new int[] { 1, 3 }, consumer1.getAssigned()));
+    SqsPartitionedQueue owner = queue.partitionFor(key) % 2 == 0 ? consumer0 : consumer1;
+    SqsPartitionedQueue other = owner == consumer0 ? consumer1 : consumer0;
+    assertEquals("HTTPSQS_GET_END", other.getEx().msg);
+    for (int i = 1; i <= 5; i++) { //ͬһ˳
+      assertEquals("test()Httpsqs:" + i, owner.getEx().msg);
+    }
+    assertEquals("HTTPSQS_GET_END", owner.getEx().msg);
+  }
+
+  /**
+   * Test of BalancedHttpsqsClient.
+   */
+  public void testBalanced() throws Exception {
+    System.out.println("balanced");
+    HttpsqsClient alive = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000);
+    HttpsqsClient dead = new HttpsqsClient("127.0.0.1", 1219, "GBK", 1000, 1000);
+    SqsBalancerConfig config = new SqsBalancerConfig(2, 1000);
+    config.setCheckIntervalMillis(0);
+    BalancedHttpsqsClient balanced = new BalancedHttpsqsClient(Arrays.asList(alive, dead), config);
+    try {
+      String queue = queue_name + "_balanced";
+      clear(alive, queue);
+      for (int i = 1; i <= 10; i++) { //ʧʱڵ
+        assertEquals("HTTPSQS_PUT_OK", balanced.putEx(queue, "test()Httpsqs:" + i, null).msg);
+      }
+      SqsNode aliveNode = balanced.getNodes().get(0);
+      SqsNode deadNode = balanced.getNodes().get(1);
+      System.out.println(balanced.getNodes());
+      assertTrue(aliveNode.isAvailable());
+      assertFalse(deadNode.isAvailable()); //ʧܺժ
+      long deadRequests = deadNode.getRequests();
+      for (int i = 1; i <= 10; i++) {
+        assertEquals("test()Httpsqs:" + i, balanced.getEx(queue, null).msg);
+      }
+      assertEquals(deadRequests, deadNode.getRequests()); //ժٷ
+      assertEquals(0, aliveNode.getOutstanding());
+
+      Thread.sleep(1100);
+      balanced.checkNow(); //̽ʧ,Ȼժ
+      assertFalse(deadNode.isAvailable());
+      assertTrue(aliveNode.getLatencyMillis() > 0);
+    } finally {
+      balanced.close();
+    }
+  }
+
+  /**
+   * ûнʱ,ժopenMillisĽڵֻŹһ̽
+   */
+  public void testBalancedTrial() throws Exception {
+    System.out.println("balancedTrial");
+    HttpsqsClient dead = new HttpsqsClient("127.0.0.1", 1219, "GBK", 1000, 1000);
+    HttpsqsClient alive = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000);
+    String queue = queue_name + "_balanced_trial";
+    clear(alive, queue);
+    SqsBalancerConfig config = new SqsBalancerConfig(1, 200);
+    config.setCheckIntervalMillis(0);
+    BalancedHttpsqsClient balanced = new BalancedHttpsqsClient(Arrays.asList(dead, alive), config);
+    try {
+      SqsNode deadNode = balanced.getNodes().get(0);
+      assertEquals("HTTPSQS_PUT_OK", balanced.putEx(queue, "test", null).msg);
+      assertFalse(deadNode.isAvailable());
+      assertEquals(1, deadNode.getRequests());
+      assertEquals("HTTPSQS_PUT_OK", balanced.putEx(queue, "test", null).msg);
+      assertEquals(1, deadNode.getRequests()); //ûopenMillis
+
+      Thread.sleep(300);
+      assertEquals("HTTPSQS_PUT_OK", balanced.putEx(queue, "test", null).msg); //̽ʧ,ڵ
+      assertEquals(2, deadNode.getRequests());
+      assertFalse(deadNode.isAvailable());
+      assertEquals("HTTPSQS_PUT_OK", balanced.putEx(queue, "test", null).msg); //̽ʧܺ¼ʱ
+      assertEquals(2, deadNode.getRequests());
+      for (int i = 0; i < 4; i++) {
+        assertEquals("test", balanced.getEx(queue, null).msg);
+      }
+    } finally {
+      balanced.close();
+    }
+  }
+
+  /**
+   * ַķʧʱҲڵ
+   */
+  public void testBalancedText() throws Exception {
+    System.out.println("balancedText");
+    HttpsqsClient dead = new HttpsqsClient("127.0.0.1", 1219, "GBK", 1000, 1000);
+    HttpsqsClient alive = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000);
+    String queue = queue_name + "_balanced_text";
+    clear(alive, queue);
+    SqsBalancerConfig config = new SqsBalancerConfig(100, 200);
+    config.setCheckIntervalMillis(0);
+    BalancedHttpsqsClient balanced = new BalancedHttpsqsClient(Arrays.asList(dead, alive), config);
+    try {
+      SqsNode deadNode = balanced.getNodes().get(0);
+      assertEquals("HTTPSQS_PUT_OK", balanced.put(queue, "test()Httpsqs:1", null)); //һȷǰĽڵ
+      assertEquals(1, deadNode.getFailures());
+      for (int i = 2; i <= 4; i++) {
+        assertEquals("HTTPSQS_PUT_OK", balanced.put(queue, "test()Httpsqs:" + i, null));
+      }
+      assertFalse(balanced.status(queue).startsWith(HttpsqsClient.HTTPSQS_ERROR_PREFIX));
+      assertFalse(balanced.statusJson(queue).startsWith(HttpsqsClient.HTTPSQS_ERROR_PREFIX));
+      for (int i = 1; i <= 4; i++) {
+        assertEquals("test()Httpsqs:" + i, balanced.get(queue, null));
+      }
+    } finally {
+      balanced.close();
+    }
+  }
+
+  /**
+   * ӳʱĽڵ(϶ûз)Ҳڵ
+   */
+  public void testBalancedConnectTimeout() throws Exception {
+    System.out.println("balancedConnectTimeout");
+    ServerSocket blackhole = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+    List<Socket> backlog = new ArrayList<Socket>();
+    try {
+      while (true) { //backlog,µղӦ,connect()ʱ
+        Socket s = new Socket();
+        backlog.add(s);
+        try {
+          s.connect(new InetSocketAddress("127.0.0.1", blackhole.getLocalPort()), 300);
+        } catch (SocketTimeoutException e) {
+          break;
+        }
+      }
+
+      HttpsqsClient slow = new HttpsqsClient("127.0.0.1", blackhole.getLocalPort(), "GBK", 300, 1000);
+      HttpsqsClient alive = new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000);
+      SqsBalancerConfig config = new SqsBalancerConfig(2, 60 * 1000);
+      config.setCheckIntervalMillis(0);
+      BalancedHttpsqsClient balanced = new BalancedHttpsqsClient(Arrays.asList(slow, alive), config);
+      try {
+        String queue = queue_name + "_balanced_timeout";
+        clear(alive, queue);
+        for (int i = 1; i <= 4; i++) {
+          assertEquals("HTTPSQS_PUT_OK", balanced.putEx(queue, "test()Httpsqs:" + i, null).msg);
+        }
+        SqsNode slowNode = balanced.getNodes().get(0);
+        assertTrue(slowNode.getFailures() > 0);
+        assertTrue(slow.putEx(queue, "test", null).cause instanceof ConnectException);
+        for (int i = 1; i <= 4; i++) {
+          assertEquals("test()Httpsqs:" + i, balanced.getEx(queue, null).msg);
+        }
+      } finally {
+        balanced.close();
+      }
+    } finally {
+      for (Socket s : backlog) {
+        s.close();
+      }
+      blackhole.close();
+    }
+  }
+
+  /**
+   * Test of putToAll method, of class HttpsqsClient.
+   */
+  public void testPutToAll() throws Exception {
+    System.out.println("putToAll");
+    List<String> queues = new ArrayList<String>();
+    for (int i = 1; i <= 20; i++) {
+      queues.add(queue_name + "_fanout" + i);
+    }
+    for (String queue : queues) {
+      clear(queue);
+    }
+
+    List<String> withDuplicate = new ArrayList<String>(queues);
+    withDuplicate.add(queues.get(0));
+    Map<String, SqsMsg> results = instance.putToAll(withDuplicate, "test()Httpsqs", null);
+    assertEquals(queues, new ArrayList<String>(results.keySet()));
+    for (String queue : queues) {
+      assertEquals("HTTPSQS_PUT_OK", results.get(queue).msg);
+      assertTrue(results.get(queue).pos > 0);
+    }
+
+    List<HttpsqsClient> nodes = new ArrayList<HttpsqsClient>();
+    nodes.add(new HttpsqsClient("127.0.0.1", 1218, "GBK", 60 * 1000, 60 * 1000));
+    nodes.add(new HttpsqsClient("localhost", 1218, "GBK", 60 * 1000, 60 * 1000));
+    ShardedHttpsqsClient sharded = new ShardedHttpsqsClient(nodes);
+    try {
+      results = sharded.putToAll(queues, "test()Httpsqs:2", null);
+      assertEquals(queues, new ArrayList<String>(results.keySet()));
+      for (String queue : queues) {
+        assertEquals("HTTPSQS_PUT_OK", results.get(queue).msg);
+      }
+    } finally {
+      sharded.close();
+    }
+
+    for (String queue : queues) {
+      assertEquals("test()Httpsqs", instance.getEx(queue, null).msg);
+      assertEquals("test()Httpsqs:2", instance.getEx(queue, null).msg);
+      assertEquals("HTTPSQS_GET_END", instance.getEx(queue, null).msg);
+    }
+  }
+
+  /**
+   * Test of fanInConsumer method, of class HttpsqsClient.
+   */
+  public void testFanInConsumer() throws Exception {
+    System.out.println("fanInConsumer");
+    String high = queue_name + "_fanin_high";
+    String low = queue_name + "_fanin_low";
+    String idle = queue_name + "_fanin_idle";
+    for (String queue : Arrays.asList(high, low, idle)) {
+      clear(queue);
+    }
+    List<String> datas = datas(60);
+    instance.putAll(high, datas, null);
+    instance.putAll(low, datas, null);
+
+    Map<String, Integer> weights = new LinkedHashMap<String, Integer>();
+    weights.put(high, 3);
+    weights.put(low, 1);
+    weights.put(idle, 1);
+    final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+    HttpsqsFanInConsumer consumer = instance.fanInConsumer(weights, null, new QueueMessageHandler() {
+      public void onMessage(String queue_name, SqsMsg msg) throws Exception {
+        order.add(queue_name);
+      }
+    }, new SqsFanInConfig(10, 200));
+
+    awaitCount(order, 120);
+    consumer.close();
+    assertEquals(120, consumer.getProcessed());
+    assertEquals(30, Collections.frequency(order.subList(0, 40), high)); //лѹʱ3:1
+    assertEquals(10, Collections.frequency(order.subList(0, 40), low));
+    System.out.println("polls: " + consumer.getPolls() + ", empty: " + consumer.getEmptyPolls());
+    assertTrue(consumer.getEmptyPolls() < 30); //նб
+  }
+
   /**
    * Test of put method, of class HttpsqsClient.
    */